@@ -0,0 +1,36 @@
+package ru.spb.tksoft.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks entry point: standard JMH command line, GC profiler always on.
+ * 
+ * Allocation rate per operation (gc.alloc.rate.norm) is what regressions on per-row paths
+ * show up in first.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    /**
+     * Run benchmarks.
+     * 
+     * @param args JMH command line, e.g. "StringExBenchmark" or "-f 1 -wi 3 -i 5".
+     * @throws Exception If JMH failed.
+     */
+    public static void main(String[] args) throws Exception {
+
+        final Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
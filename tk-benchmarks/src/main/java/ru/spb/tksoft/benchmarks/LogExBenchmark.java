@@ -0,0 +1,46 @@
+package ru.spb.tksoft.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+import ru.spb.tksoft.utils.log.LogEx;
+
+/**
+ * LogEx: method name lookup and disabled trace calls.
+ * 
+ * traceDisabled* compare the old call site (name looked up eagerly as an argument) with
+ * {@link LogEx#THIS_METHOD} (looked up only if the message is logged).
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogExBenchmark {
+
+    private static final Logger DISABLED = NOPLogger.NOP_LOGGER;
+
+    @Benchmark
+    public String getThisMethodName() {
+        return LogEx.getThisMethodName();
+    }
+
+    @Benchmark
+    public void traceDisabledGetThisMethodName() {
+        LogEx.trace(DISABLED, LogEx.getThisMethodName(), LogEx.STARTING);
+    }
+
+    @Benchmark
+    public void traceDisabledThisMethod() {
+        LogEx.trace(DISABLED, LogEx.THIS_METHOD, LogEx.STARTING);
+    }
+}
@@ -0,0 +1,103 @@
+package ru.spb.tksoft.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.spb.tksoft.ads.config.ImageProcessingProperties;
+import ru.spb.tksoft.ads.config.IoBufferPoolValuesConfig;
+import ru.spb.tksoft.ads.dto.response.AdResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentResponseDto;
+import ru.spb.tksoft.ads.entity.CommentEntity;
+import ru.spb.tksoft.ads.entity.UserEntity;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
+import ru.spb.tksoft.ads.io.IoBufferPool;
+import ru.spb.tksoft.ads.mapper.AdMapper;
+import ru.spb.tksoft.ads.mapper.CommentMapper;
+import ru.spb.tksoft.ads.projection.AdResponseProjection;
+import ru.spb.tksoft.ads.service.ImageRenditionService;
+import ru.spb.tksoft.ads.service.ResourceService;
+
+/**
+ * Per-row mapping of listings and comments, image URL building.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final String IMAGE_NAME =
+            "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08.jpeg";
+
+    private ResourceService resourceService;
+    private AdResponseProjection projection;
+    private CommentEntity comment;
+
+    private record Projection(Long getId, String getTitle, BigDecimal getPrice,
+            Long getUserId, Long getImageId, String getImageName)
+            implements AdResponseProjection {
+    }
+
+    private static ImageProcessingProperties properties(final String urlBasePath) {
+        return new ImageProcessingProperties(512, 10_485_760, 256, 256, 2048, 2048,
+                List.of("image/jpeg", "image/png", "image/webp"), true, 2,
+                urlBasePath, "/tmp/benchmarks", "classpath:static/no-image.png", 45061,
+                "image/png");
+    }
+
+    @Setup
+    public void setup() {
+
+        resourceService = new ResourceService(properties("/users/avatar"),
+                properties("/ads/image"), new DefaultResourceLoader(),
+                new ImageRenditionService(),
+                new IoBufferPool(new IoBufferPoolValuesConfig(), new SimpleMeterRegistry()),
+                new SimpleMeterRegistry());
+
+        projection = new Projection(1234567L, "Продам велосипед", BigDecimal.valueOf(15000),
+                7654321L, 2345678L, IMAGE_NAME);
+
+        UserEntity user = new UserEntity();
+        user.setId(7654321L);
+        user.setFirstName("Иван");
+
+        comment = new CommentEntity();
+        comment.setId(3456789L);
+        comment.setUser(user);
+        comment.setCreatedAt(Instant.parse("2025-06-01T12:00:00Z"));
+        comment.setText("Ещё продаёте?");
+    }
+
+    @Benchmark
+    public AdResponseDto adToDto() {
+        return AdMapper.toDto(resourceService, projection);
+    }
+
+    @Benchmark
+    public CommentResponseDto commentToDto() {
+        return CommentMapper.toDto(resourceService, comment);
+    }
+
+    @Benchmark
+    public String getAdImageUrl() {
+        return resourceService.getAdImageUrl(projection.getImageId(), ImageRendition.THUMB,
+                ResourceService.getImageVersion(IMAGE_NAME));
+    }
+}
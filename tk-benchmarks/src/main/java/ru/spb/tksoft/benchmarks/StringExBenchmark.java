@@ -0,0 +1,66 @@
+package ru.spb.tksoft.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.spb.tksoft.utils.string.StringEx;
+import ru.spb.tksoft.utils.string.StringTemplate;
+
+/**
+ * StringEx: URL templating, space and date/time normalization.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringExBenchmark {
+
+    private String template = "{api}/ads/{id}/comments/{commentId}";
+    private StringTemplate compiled = StringTemplate.compile(template);
+    private String api = "http://localhost:8080";
+    private long adId = 1234567L;
+    private long commentId = 7654321L;
+
+    private String date = "1.2.2025";
+    private List<String> dates = List.of("1.2.2025", "31.12.2024", "7.7.2025", "15.3.2025",
+            "1.10.2025", "28.2.2025", "9.9.2025", "30.6.2025");
+
+    private String spaced = "  Продам   велосипед,  почти   новый,   торг   уместен  ";
+
+    @Benchmark
+    public String r() {
+        return StringEx.r(template, api, adId, commentId);
+    }
+
+    @Benchmark
+    public String templateRender() {
+        return compiled.render(api, adId, commentId);
+    }
+
+    @Benchmark
+    public String removeAdjacentSpaces() {
+        return StringEx.removeAdjacentSpaces(spaced);
+    }
+
+    @Benchmark
+    public String normalizeDateTime() {
+        return StringEx.normalizeDateTime(date, ".", "dd.MM.yyyy");
+    }
+
+    @Benchmark
+    public List<String> normalizeDateTimeColumn() {
+        return StringEx.normalizeDateTimeColumn(dates, ".", "dd.MM.yyyy");
+    }
+}
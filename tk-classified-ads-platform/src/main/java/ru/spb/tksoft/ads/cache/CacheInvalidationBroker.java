@@ -0,0 +1,26 @@
+package ru.spb.tksoft.ads.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts L1 invalidations to other nodes.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public interface CacheInvalidationBroker {
+
+    /**
+     * Publish invalidation.
+     * 
+     * @param cacheName Cache name.
+     * @param key Cache key as string, null means "clear cache".
+     */
+    void publish(String cacheName, String key);
+
+    /**
+     * Subscribe to invalidations published by other nodes.
+     * 
+     * @param listener Listener.
+     */
+    void subscribe(Consumer<CacheInvalidationMessage> listener);
+}
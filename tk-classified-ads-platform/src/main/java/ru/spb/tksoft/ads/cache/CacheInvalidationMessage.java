@@ -0,0 +1,13 @@
+package ru.spb.tksoft.ads.cache;
+
+/**
+ * Invalidation message: drop L1 entry (or whole L1 cache if key is null).
+ * 
+ * @param nodeId ID of the node published the message.
+ * @param cacheName Cache name.
+ * @param key Cache key as string, null means "clear cache".
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public record CacheInvalidationMessage(String nodeId, String cacheName, String key) {
+}
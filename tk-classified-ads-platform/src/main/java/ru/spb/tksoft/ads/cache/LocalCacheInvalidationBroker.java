@@ -0,0 +1,31 @@
+package ru.spb.tksoft.ads.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-memory invalidation broker: single node and tests.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class LocalCacheInvalidationBroker implements CacheInvalidationBroker {
+
+    private static final String NODE_ID = "local";
+
+    private final List<Consumer<CacheInvalidationMessage>> listeners =
+            new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(final String cacheName, final String key) {
+
+        final var message = new CacheInvalidationMessage(NODE_ID, cacheName, key);
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(final Consumer<CacheInvalidationMessage> listener) {
+
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.spb.tksoft.ads.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.spb.tksoft.utils.log.LogEx;
+
+/**
+ * Invalidation broker over Redis pub/sub.
+ * 
+ * Own messages are skipped: the publishing node has already dropped its L1 entry.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class RedisCacheInvalidationBroker
+        implements CacheInvalidationBroker, MessageListener, DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(RedisCacheInvalidationBroker.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Consumer<CacheInvalidationMessage>> listeners =
+            new CopyOnWriteArrayList<>();
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    private final RedisMessageListenerContainer container;
+
+    /**
+     * Constructor. Starts listening immediately: the application is lazy-initialized, so the
+     * container must not wait for context lifecycle callbacks.
+     * 
+     * @param connectionFactory Redis connection factory.
+     * @param redisTemplate Redis template.
+     * @param channel Pub/sub channel.
+     */
+    public RedisCacheInvalidationBroker(final RedisConnectionFactory connectionFactory,
+            final StringRedisTemplate redisTemplate, final String channel) {
+
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+
+        container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(this, new ChannelTopic(channel));
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public void publish(final String cacheName, final String key) {
+
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(
+                    new CacheInvalidationMessage(nodeId, cacheName, key)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // L1 TTL bounds staleness on other nodes.
+            LogEx.error(log, LogEx.THIS_METHOD, LogEx.EXCEPTION_THROWN, e);
+        }
+    }
+
+    @Override
+    public void subscribe(final Consumer<CacheInvalidationMessage> listener) {
+
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+
+        try {
+            final CacheInvalidationMessage invalidation = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8),
+                    CacheInvalidationMessage.class);
+
+            if (nodeId.equals(invalidation.nodeId())) {
+                return;
+            }
+            listeners.forEach(listener -> listener.accept(invalidation));
+
+        } catch (Exception e) {
+            LogEx.error(log, LogEx.THIS_METHOD, LogEx.EXCEPTION_THROWN, e);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+
+        container.destroy();
+    }
+}
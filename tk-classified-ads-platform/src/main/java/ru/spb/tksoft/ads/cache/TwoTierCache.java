@@ -0,0 +1,201 @@
+package ru.spb.tksoft.ads.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Two-tier cache: in-process Caffeine L1 over shared Redis L2.
+ * 
+ * L1 keys are {@code String.valueOf(key)}, so invalidations can travel between nodes as
+ * strings. Null values are not cached (same as L2).
+ * 
+ * L1 keeps value objects as is, so an L1 hit costs neither serialization nor a copy. Cached
+ * values are shared between callers and must be immutable; the cached DTOs have no setters.
+ * 
+ * An L2 read racing an invalidation must not bring the old value back to L1. Every L1 key
+ * maps to a generation stripe, bumped by each invalidation of that key (all stripes on clear).
+ * A value read from L2 is kept in L1 only if its stripe did not move during the read.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class TwoTierCache implements Cache {
+
+    /** Generation stripes, a power of two. A collision costs an L1 miss only. */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final CacheInvalidationBroker broker;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Constructor.
+     * 
+     * @param name Cache name.
+     * @param l1 In-process tier.
+     * @param l2 Shared tier.
+     * @param broker Invalidation broker.
+     */
+    public TwoTierCache(final String name,
+            final com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+            final Cache l2, final CacheInvalidationBroker broker) {
+
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.broker = broker;
+    }
+
+    private static String toL1Key(final Object key) {
+        return String.valueOf(key);
+    }
+
+    private static int toStripe(final String l1Key) {
+
+        final int hash = l1Key.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private long generationOf(final String l1Key) {
+        return generations.get(toStripe(l1Key));
+    }
+
+    /**
+     * Keep the value in L1 unless the key was invalidated since the generation was read.
+     * 
+     * The check follows the put: an invalidation either moved the generation before the check,
+     * or drops the entry itself after the put.
+     */
+    private void putLocal(final String l1Key, final Object value, final long generation) {
+
+        l1.put(l1Key, value);
+        if (generationOf(l1Key) != generation) {
+            l1.invalidate(l1Key);
+        }
+    }
+
+    /**
+     * Drop L1 entry only and move its generation. Called on invalidation from any node.
+     * 
+     * @param key Cache key as string, null means "drop all".
+     */
+    public void invalidateLocal(final String key) {
+
+        if (key == null) {
+            for (int i = 0; i < GENERATION_STRIPES; i++) {
+                generations.incrementAndGet(i);
+            }
+            l1.invalidateAll();
+        } else {
+            generations.incrementAndGet(toStripe(key));
+            l1.invalidate(key);
+        }
+    }
+
+    /** @return In-process tier. */
+    @NotNull
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getLocalCache() {
+        return l1;
+    }
+
+    @Override
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NotNull
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NotNull final Object key) {
+
+        final String l1Key = toL1Key(key);
+
+        final Object value = l1.getIfPresent(l1Key);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        final long generation = generationOf(l1Key);
+        final ValueWrapper wrapper = l2.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            putLocal(l1Key, wrapper.get(), generation);
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull final Object key, final Class<T> type) {
+
+        final ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+
+        final Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NotNull final Object key, @NotNull final Callable<T> valueLoader) {
+
+        final ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        final String l1Key = toL1Key(key);
+        final long generation = generationOf(l1Key);
+
+        final T value = l2.get(key, valueLoader);
+        if (value != null) {
+            putLocal(l1Key, value, generation);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(@NotNull final Object key, final Object value) {
+
+        final String l1Key = toL1Key(key);
+        final long generation = generationOf(l1Key);
+
+        l2.put(key, value);
+        if (value != null) {
+            putLocal(l1Key, value, generation);
+        }
+    }
+
+    @Override
+    public void evict(@NotNull final Object key) {
+
+        final String l1Key = toL1Key(key);
+
+        l2.evict(key);
+        invalidateLocal(l1Key);
+        broker.publish(name, l1Key);
+    }
+
+    @Override
+    public void clear() {
+
+        l2.clear();
+        invalidateLocal(null);
+        broker.publish(name, null);
+    }
+}
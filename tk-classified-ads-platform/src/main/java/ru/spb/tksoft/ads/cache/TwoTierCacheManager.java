@@ -0,0 +1,109 @@
+package ru.spb.tksoft.ads.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Cache manager of {@link TwoTierCache}: Caffeine L1 over caches of given L2 manager.
+ * 
+ * Both tiers of every cache are bound to the meter registry on creation: "cache.gets" (hit,
+ * miss), "cache.puts", "cache.evictions" etc. tagged by cache name and tier ("l1", "l2").
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    /** Metric tag: cache tier. */
+    public static final String TAG_TIER = "tier";
+
+    /** Tier: in-process. */
+    public static final String TIER_L1 = "l1";
+
+    /** Tier: shared. */
+    public static final String TIER_L2 = "l2";
+
+    private final CacheManager l2CacheManager;
+    private final CacheInvalidationBroker broker;
+    private final MeterRegistry meterRegistry;
+
+    private final long l1MaximumSize;
+    private final Duration l1EntryTtl;
+
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * 
+     * @param l2CacheManager Shared tier manager.
+     * @param broker Invalidation broker.
+     * @param meterRegistry Meter registry.
+     * @param l1MaximumSize Max entries of L1, per cache.
+     * @param l1EntryTtl L1 entry TTL.
+     */
+    public TwoTierCacheManager(final CacheManager l2CacheManager,
+            final CacheInvalidationBroker broker, final MeterRegistry meterRegistry,
+            final long l1MaximumSize, final Duration l1EntryTtl) {
+
+        this.l2CacheManager = l2CacheManager;
+        this.broker = broker;
+        this.meterRegistry = meterRegistry;
+        this.l1MaximumSize = l1MaximumSize;
+        this.l1EntryTtl = l1EntryTtl;
+
+        broker.subscribe(this::onInvalidation);
+    }
+
+    private void onInvalidation(final CacheInvalidationMessage message) {
+
+        final TwoTierCache cache = caches.get(message.cacheName());
+        if (cache != null) {
+            cache.invalidateLocal(message.key());
+        }
+    }
+
+    private TwoTierCache createCache(final String name) {
+
+        final Cache l2 = l2CacheManager.getCache(name);
+        if (l2 == null) {
+            return null;
+        }
+
+        final com.github.benmanes.caffeine.cache.Cache<String, Object> l1 =
+                Caffeine.newBuilder()
+                        .maximumSize(l1MaximumSize)
+                        .expireAfterWrite(l1EntryTtl)
+                        .recordStats()
+                        .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, name, Tags.of(TAG_TIER, TIER_L1));
+        if (l2 instanceof RedisCache redisCache) {
+            new RedisCacheMetrics(redisCache, Tags.of(TAG_TIER, TIER_L2)).bindTo(meterRegistry);
+        }
+
+        return new TwoTierCache(name, l1, l2, broker);
+    }
+
+    @Override
+    public Cache getCache(@NotNull final String name) {
+
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    @NotNull
+    public Collection<String> getCacheNames() {
+
+        return l2CacheManager.getCacheNames();
+    }
+}
@@ -4,6 +4,7 @@ import java.util.HashMap;
 
 import javax.sql.DataSource;
 
+import org.hibernate.cfg.AvailableSettings;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
@@ -37,6 +38,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AdsDatabaseConfig {
 
+    /** Statements in one JDBC batch, equal to ID allocation size of entities. */
+    public static final int JDBC_BATCH_SIZE = 50;
+
     @NotNull
     private final Environment environment;
 
@@ -56,6 +60,11 @@ public class AdsDatabaseConfig {
         properties.put("hibernate.dialect",
                 environment.getProperty("spring.jpa.database-platform"));
 
+        // Inserts and updates of the same table are grouped and sent in batches.
+        properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(JDBC_BATCH_SIZE));
+        properties.put(AvailableSettings.ORDER_INSERTS, "true");
+        properties.put(AvailableSettings.ORDER_UPDATES, "true");
+
         return builder.dataSource(dataSource)
                 .packages(
                         "ru.spb.tksoft.ads.entity")
@@ -0,0 +1,39 @@
+package ru.spb.tksoft.ads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bulk operations: limits of ads created in one transaction, ads import jobs.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Component
+@ConfigurationProperties(prefix = "bulk")
+@Getter
+@Setter
+public class BulkValuesConfig {
+
+    /** Max amount of ads in one bulk request. */
+    private int maxAds = 500;
+
+    /** Max amount of ads in one import archive. */
+    private int importMaxAds = 10_000;
+
+    /** Max size of one import archive, bytes. Multipart limits do not apply to it. */
+    private long importMaxArchiveBytes = 200L * 1024 * 1024;
+
+    /** Images of one import archive validated and stored concurrently. */
+    private int importParallelism = 8;
+
+    /** Import jobs running concurrently on one node. */
+    private int importMaxJobs = 4;
+
+    /** Import jobs of one user running concurrently on one node. */
+    private int importMaxJobsPerUser = 1;
+
+    /** Time a finished import job can be queried, minutes. */
+    private int importJobTtlMinutes = 60;
+}
@@ -21,7 +21,9 @@ public record ImageProcessingProperties(
 
         List<String> allowedMimeTypes,
 
-        int ioBufferSize,
+        boolean contentAddressed,
+
+        int shardDepth,
 
         String urlBasePath,
         String storagePath,
@@ -0,0 +1,30 @@
+package ru.spb.tksoft.ads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Pool of I/O buffers for file transfers.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Component
+@ConfigurationProperties(prefix = "io.buffer-pool")
+@Getter
+@Setter
+public class IoBufferPoolValuesConfig {
+
+    /** Size of one buffer, bytes. */
+    private int bufferSize = 65536;
+
+    /** Max buffers: bufferSize * maxBuffers is the memory cap of the pool. */
+    private int maxBuffers = 64;
+
+    /** Allocate direct (off-heap) buffers. */
+    private boolean direct = true;
+
+    /** How long to wait for a free buffer when all are in use, milliseconds. */
+    private long acquireTimeoutMillis = 5000;
+}
@@ -0,0 +1,30 @@
+package ru.spb.tksoft.ads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * JWT: token signing and lifetime.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Component
+@ConfigurationProperties(prefix = "jwt")
+@Getter
+@Setter
+public class JwtValuesConfig {
+
+    /** HMAC-SHA secret, at least 32 bytes. */
+    private String secret;
+
+    /** Token issuer. */
+    private String issuer = "tk-classified-ads-platform";
+
+    /**
+     * Token lifetime, minutes. Role or password changes take effect for issued tokens only
+     * after expiration, so keep it short.
+     */
+    private long ttlMinutes = 30;
+}
@@ -0,0 +1,27 @@
+package ru.spb.tksoft.ads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Maintenance: limits of storage migration and comments export requests.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Component
+@ConfigurationProperties(prefix = "maintenance")
+@Getter
+@Setter
+public class MaintenanceValuesConfig {
+
+    /** Files moved by one storage migration request when the client does not ask. */
+    private int migrationBatchDefault = 1000;
+
+    /** Max files moved by one storage migration request: larger requests are rejected. */
+    private int migrationBatchMax = 10_000;
+
+    /** Max comments exports running at once: each holds a connection and a cursor. */
+    private int exportMaxConcurrent = 2;
+}
@@ -0,0 +1,34 @@
+package ru.spb.tksoft.ads.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Metrics config.
+ *
+ * Service methods annotated with {@code @Timed(MetricsConfig.SERVICE_TIMER)} are timed with
+ * "class" and "method" tags; percentiles and histogram buckets are set in
+ * "management.metrics.distribution".
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Timer of service methods. */
+    public static final String SERVICE_TIMER = "ads.service";
+
+    /**
+     * Aspect processing {@code @Timed} annotations.
+     *
+     * @param meterRegistry Meter registry.
+     * @return Aspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -1,8 +1,12 @@
 package ru.spb.tksoft.ads.config;
 
+import java.util.List;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.spb.tksoft.ads.converter.ZeroCopyResourceHttpMessageConverter;
 
 /**
  * Resource configuration.
@@ -19,4 +23,14 @@ public class MvcConfig implements WebMvcConfigurer {
                 .addResourceLocations("${image.avatar.storage-path}", "${image.ad.storage-path}")
                 .setCachePeriod(3600); // Caching for 1 hour
     }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+
+        // Files are written with sendfile/transferTo instead of stream copy.
+        converters.replaceAll(
+                converter -> converter.getClass() == ResourceHttpMessageConverter.class
+                        ? new ZeroCopyResourceHttpMessageConverter()
+                        : converter);
+    }
 }
@@ -0,0 +1,33 @@
+package ru.spb.tksoft.ads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Near cache: in-process L1 tier over Redis.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Component
+@ConfigurationProperties(prefix = "cache.near")
+@Getter
+@Setter
+public class NearCacheValuesConfig {
+
+    /** Max entries of L1 tier, per cache. */
+    private long maximumSize = 1000;
+
+    /**
+     * L1 entry TTL, seconds. Shorter than Redis TTL: bounds staleness if an invalidation
+     * message is lost.
+     */
+    private long entryTtlSeconds = 60;
+
+    /** Invalidation broker: "redis" (pub/sub) or "local" (single node, tests). */
+    private String broker = "redis";
+
+    /** Redis pub/sub channel for invalidation messages. */
+    private String channel = "tk-ads:cache-invalidation";
+}
@@ -0,0 +1,38 @@
+package ru.spb.tksoft.ads.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Paging: page size limits for keyset-paginated listings.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Component
+@ConfigurationProperties(prefix = "paging")
+@Getter
+@Setter
+public class PagingValuesConfig {
+
+    /** Page size used when the client does not ask for a specific one. */
+    private int defaultPageSize = 20;
+
+    /** Upper bound of page size: larger requests are silently capped. */
+    private int maxPageSize = 100;
+
+    /**
+     * Get effective page size.
+     *
+     * @param requested Requested page size, may be null.
+     * @return Page size in range [1, maxPageSize].
+     */
+    public int resolvePageSize(final Integer requested) {
+
+        if (requested == null || requested <= 0) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        return Math.min(requested, maxPageSize);
+    }
+}
@@ -1,20 +1,31 @@
 package ru.spb.tksoft.ads.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.spb.tksoft.ads.cache.CacheInvalidationBroker;
+import ru.spb.tksoft.ads.cache.LocalCacheInvalidationBroker;
+import ru.spb.tksoft.ads.cache.RedisCacheInvalidationBroker;
+import ru.spb.tksoft.ads.cache.TwoTierCacheManager;
 import java.time.Duration;
 
 /**
  * Redis cache config.
- * 
+ *
+ * Primary cache manager is two-tier: in-process Caffeine L1 over Redis L2, L1 invalidations
+ * are broadcast to other nodes.
+ *
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
 @Configuration
@@ -25,7 +36,9 @@ public class RedisCacheConfig {
 
     @Bean
     @Primary
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            CacheInvalidationBroker cacheInvalidationBroker,
+            NearCacheValuesConfig nearCacheValuesConfig, MeterRegistry meterRegistry) {
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(ENTRY_TTL))
@@ -33,10 +46,34 @@ public class RedisCacheConfig {
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
-                .transactionAware()
                 .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // Transaction awareness wraps both tiers at once.
+        return new TransactionAwareCacheManagerProxy(
+                new TwoTierCacheManager(redisCacheManager, cacheInvalidationBroker,
+                        meterRegistry, nearCacheValuesConfig.getMaximumSize(),
+                        Duration.ofSeconds(nearCacheValuesConfig.getEntryTtlSeconds())));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.near", name = "broker", havingValue = "redis",
+            matchIfMissing = true)
+    public CacheInvalidationBroker redisCacheInvalidationBroker(
+            RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+            NearCacheValuesConfig nearCacheValuesConfig) {
+
+        return new RedisCacheInvalidationBroker(connectionFactory, redisTemplate,
+                nearCacheValuesConfig.getChannel());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.near", name = "broker", havingValue = "local")
+    public CacheInvalidationBroker localCacheInvalidationBroker() {
+
+        return new LocalCacheInvalidationBroker();
     }
 }
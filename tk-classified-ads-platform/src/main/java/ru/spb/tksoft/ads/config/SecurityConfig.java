@@ -2,21 +2,26 @@ package ru.spb.tksoft.ads.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.filter.JwtAuthenticationFilter;
+import ru.spb.tksoft.ads.service.auth.TokenService;
 import java.util.Arrays;
 import java.util.List;
 
 /**
- * Security config for Spring Security, basic authentication.
+ * Security config for Spring Security: stateless, bearer token (JWT) or basic authentication.
  * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
@@ -27,6 +32,8 @@ public class SecurityConfig {
 
     private final CorsValuesConfig values;
 
+    private final TokenService tokenService;
+
     /**
      * Configure Spring Security filters and authorization rules.
      * 
@@ -40,8 +47,15 @@ public class SecurityConfig {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/maintenance/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/ads/comments/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/ads/bulk", "/ads/import")
+                        .hasRole("DEALER")
+                        .requestMatchers(HttpMethod.GET, "/ads/import/**").authenticated()
                         .requestMatchers(
                                 "/register",
                                 "/login",
@@ -58,6 +72,8 @@ public class SecurityConfig {
                                 "/actuator/health")
                         .permitAll()
                         .anyRequest().authenticated())
+                .addFilterBefore(new JwtAuthenticationFilter(tokenService),
+                        BasicAuthenticationFilter.class)
                 .httpBasic(x -> {
                 });
 
@@ -1,14 +1,22 @@
 package ru.spb.tksoft.ads.controller;
 
+import java.io.InputStream;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateAdRequestDto;
+import ru.spb.tksoft.ads.dto.response.AdImportJobResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdExtendedResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdFullResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdsPageResponseDto;
 import ru.spb.tksoft.ads.entity.AdEntity;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
+import ru.spb.tksoft.ads.service.AdImportService;
 import ru.spb.tksoft.ads.service.AdService;
 import ru.spb.tksoft.ads.service.AdServiceCached;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,7 +27,9 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -37,6 +47,7 @@ public class AdController {
 
     private final AdService adsService;
     private final AdServiceCached adsServiceCached;
+    private final AdImportService adImportService;
 
     /**
      * Get all ads.
@@ -52,6 +63,24 @@ public class AdController {
         return adsService.getAllAds();
     }
 
+    /**
+     * Get a page of ads, newest first.
+     * 
+     * @param cursor Continuation token ("next" of the previous page), absent for the first page.
+     * @param size Page size, capped by configuration.
+     * @return 200/OK, 400/BAD_REQUEST.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Получение страницы объявлений")
+    @GetMapping("/page")
+    @NotNull
+    public AdsPageResponseDto getAdsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        return adsService.getAdsPage(cursor, size);
+    }
+
     /**
      * Get all ads of authenticated user.
      * 
@@ -70,15 +99,21 @@ public class AdController {
      * Get ad image.
      * 
      * Returns 200/OK, 404/Not Found.
+     * Returns 400/BAD_REQUEST if size is unknown.
      * 
      * @param adId - User ID.
-     * @return Image resource.
+     * @param size - Rendition: thumb, card, full; original if absent.
+     * @param v - Image version; if it is the current one, response is cacheable forever.
+     * @return Image resource, 304/Not Modified or 206/Partial Content on conditional/range
+     *         request.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/image/{adId}")
-    public ResponseEntity<Resource> getAdImage(@PathVariable(required = true) long adId) {
+    public ResponseEntity<Resource> getAdImage(@PathVariable(required = true) long adId,
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) String v) {
 
-        return adsService.getAdImage(adId);
+        return adsService.getAdImage(adId, ImageRendition.fromParameter(size), v);
     }
 
     /**
@@ -96,10 +131,65 @@ public class AdController {
 
         final String savedFileName = adsService.saveImageFile(image);
         final AdEntity adEntity =
-                adsService.createAdEntity(userDetails.getUsername(), createAdRequest,
-                        savedFileName, (int) image.getSize(), image.getContentType());
-        final AdEntity savedAdEntity = adsService.saveAdEntity(adEntity, savedFileName);
-        return adsService.getCreatedAd(savedAdEntity);
+                adsService.createAdEntity(userDetails.getUsername(), createAdRequest);
+        final AdEntity savedAdEntity = adsService.saveAdEntity(adEntity, savedFileName,
+                (int) image.getSize(), image.getContentType());
+        return adsService.getCreatedAd(savedAdEntity, savedFileName);
+    }
+
+    /**
+     * Create many ads sharing one image in one transaction. Dealers only.
+     * 
+     * @return 201/CREATED, 400/BAD_REQUEST, 401/Unauthorized, 403/FORBIDDEN.
+     */
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Пакетное добавление объявлений (для дилеров)")
+    @PostMapping(value = "/bulk", consumes = "multipart/form-data")
+    @NotNull
+    public AdsArrayResponseDto addAdsBulk(@AuthenticationPrincipal UserDetails userDetails,
+            @NotNull @RequestPart("properties") List<@Valid CreateOrUpdateAdRequestDto> ads,
+            @NotNull @RequestPart("image") MultipartFile image) {
+
+        adsService.checkBulkAllowed(userDetails, ads.size());
+
+        final String savedFileName = adsService.saveImageFile(image);
+        return adsService.saveAdsBulk(userDetails.getUsername(), ads, savedFileName,
+                (int) image.getSize(), image.getContentType());
+    }
+
+    /**
+     * Start import of ads from zip archive: "ads.json" manifest and images. Dealers only.
+     * 
+     * Archive is the raw request body, streamed to disk up to bulk.import-max-archive-bytes:
+     * multipart limits stay sized for single images.
+     * 
+     * @return 202/ACCEPTED with job status, 400/BAD_REQUEST, 401/Unauthorized, 403/FORBIDDEN,
+     *         429/TOO_MANY_REQUESTS, 503/SERVICE_UNAVAILABLE.
+     */
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @Operation(summary = "Импорт объявлений из архива (для дилеров)")
+    @PostMapping(value = "/import", consumes = AdImportService.ARCHIVE_MEDIA_TYPE)
+    @NotNull
+    public AdImportJobResponseDto importAds(@AuthenticationPrincipal UserDetails userDetails,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long size,
+            InputStream archive) {
+
+        return adImportService.startImport(userDetails, size, archive);
+    }
+
+    /**
+     * Get status and progress of ads import job.
+     * 
+     * @return 200/OK, 401/Unauthorized, 404/NOT_FOUND.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Состояние импорта объявлений")
+    @GetMapping("/import/{jobId}")
+    @NotNull
+    public AdImportJobResponseDto getImportJob(@AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable(required = true) String jobId) {
+
+        return adImportService.getImportJob(userDetails, jobId);
     }
 
     /**
@@ -116,6 +206,20 @@ public class AdController {
         return adsServiceCached.getAdInfo(adId);
     }
 
+    /**
+     * Get ad with author and the first page of comments in one response.
+     * 
+     * @return 200/OK, 401/Unauthorized, 404/NOT_FOUND.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Получение объявления вместе с комментариями")
+    @GetMapping("/{adId}/full")
+    @NotNull
+    public AdFullResponseDto getAdFull(@PathVariable(required = true) long adId) {
+
+        return adsServiceCached.getAdFull(adId);
+    }
+
     /**
      * Update ad image.
      * 
@@ -3,7 +3,9 @@ package ru.spb.tksoft.ads.controller;
 import lombok.RequiredArgsConstructor;
 import ru.spb.tksoft.ads.dto.request.LoginRequestDto;
 import ru.spb.tksoft.ads.dto.request.RegisterRequestDto;
+import ru.spb.tksoft.ads.dto.response.LoginResponseDto;
 import ru.spb.tksoft.ads.service.auth.AuthService;
+import ru.spb.tksoft.ads.service.auth.TokenService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,6 +23,9 @@ public class AuthController {
     @NotNull
     private final AuthService authService;
 
+    @NotNull
+    private final TokenService tokenService;
+
     /**
      * POST /register - Registration endpoint.
      * 
@@ -45,19 +50,18 @@ public class AuthController {
      * POST /login - Authentication endpoint.
      * 
      * @param login Object with user credentials.
-     * @return ResponseEntity<Void> - 200 OK if authentication is successful, 401 Unauthorized if
-     *         authentication fails.
+     * @return ResponseEntity<LoginResponseDto> - 200 OK with bearer token if authentication is
+     *         successful, 401 Unauthorized if authentication fails.
      */
     @Operation(summary = "Авторизация пользователя")
     @Tag(name = "Авторизация")
     @PostMapping("/login")
-    public ResponseEntity<Void> login(
+    public ResponseEntity<LoginResponseDto> login(
             @NotNull @Valid @RequestBody LoginRequestDto login) {
 
-        if (authService.login(login.getUsername(), login.getPassword())) {
-            return ResponseEntity.ok().build();
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+        return authService.login(login.getUsername(), login.getPassword())
+                .map(token -> ResponseEntity.ok(new LoginResponseDto(
+                        token, "Bearer", tokenService.getTokenTtlSeconds())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
     }
 }
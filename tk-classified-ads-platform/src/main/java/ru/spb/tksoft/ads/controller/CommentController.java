@@ -4,9 +4,12 @@ import lombok.RequiredArgsConstructor;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateCommentRequestDto;
 import ru.spb.tksoft.ads.dto.response.CommentResponseDto;
 import ru.spb.tksoft.ads.dto.response.CommentsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentsPageResponseDto;
 import ru.spb.tksoft.ads.entity.CommentEntity;
 import ru.spb.tksoft.ads.service.CommentService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,8 +19,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -63,6 +68,24 @@ public class CommentController {
         return commentService.getComments(Long.valueOf(adId));
     }
 
+    /**
+     * Get a page of comments by ad ID, newest first.
+     * 
+     * @param cursor Continuation token ("next" of the previous page), absent for the first page.
+     * @param size Page size, capped by configuration.
+     * @return 200/OK, 400/BAD_REQUEST, 401/Unauthorized.
+     */
+    @ResponseStatus(HttpStatus.OK)
+    @Operation(summary = "Получение страницы комментариев объявления")
+    @GetMapping("/{adId}/comments/page")
+    @NotNull
+    public CommentsPageResponseDto getCommentsPage(@PathVariable(required = true) long adId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        return commentService.getCommentsPage(Long.valueOf(adId), cursor, size);
+    }
+
     /**
      * Get all comments. Test method.
      * 
@@ -77,6 +100,22 @@ public class CommentController {
         return commentService.getAllComments();
     }
 
+    /**
+     * Export all comments as NDJSON, streamed while being read. Admins only.
+     * 
+     * @return 200/OK, 401/Unauthorized, 403/FORBIDDEN, 503/SERVICE_UNAVAILABLE.
+     */
+    @Operation(summary = "Выгрузка всех комментариев (NDJSON)")
+    @GetMapping(value = "/comments/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @NotNull
+    public ResponseEntity<StreamingResponseBody> exportComments() {
+
+        commentService.startExport();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(commentService::exportComments);
+    }
+
     /**
      * Update comment.
      * 
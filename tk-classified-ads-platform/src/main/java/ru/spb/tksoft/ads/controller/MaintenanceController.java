@@ -6,10 +6,15 @@ import org.springframework.web.bind.annotation.RestController;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.config.MaintenanceValuesConfig;
+import ru.spb.tksoft.ads.dto.response.StorageMigrationResponseDto;
+import ru.spb.tksoft.ads.exception.TkInvalidParameterException;
 import ru.spb.tksoft.ads.service.AdServiceCached;
+import ru.spb.tksoft.ads.service.ResourceService;
 import ru.spb.tksoft.ads.service.UserServiceCached;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 /**
@@ -25,6 +30,8 @@ public class MaintenanceController {
 
     private final UserServiceCached userServiceCached;
     private final AdServiceCached adsServiceCached;
+    private final ResourceService resourceService;
+    private final MaintenanceValuesConfig maintenanceValuesConfig;
 
     /**
      * Clear caches.
@@ -37,4 +44,26 @@ public class MaintenanceController {
         userServiceCached.clearCaches();
         adsServiceCached.clearCaches();
     }
+
+    /**
+     * Move a batch of image files from flat into sharded storage layout. Repeat until completed.
+     * 
+     * @param batch Maximum count of files to move in each storage, up to configured maximum.
+     * @return Response DTO.
+     */
+    @Operation(summary = "Перенос файлов изображений в секционированное хранилище")
+    @PostMapping("/migrate-image-storage")
+    public StorageMigrationResponseDto migrateImageStorage(
+            @RequestParam(required = false) Integer batch) {
+
+        final int batchSize = batch == null
+                ? maintenanceValuesConfig.getMigrationBatchDefault()
+                : batch;
+        if (batchSize <= 0 || batchSize > maintenanceValuesConfig.getMigrationBatchMax()) {
+            throw new TkInvalidParameterException("batch");
+        }
+
+        final int moved = resourceService.migrateStorage(batchSize);
+        return new StorageMigrationResponseDto(moved, moved == 0);
+    }
 }
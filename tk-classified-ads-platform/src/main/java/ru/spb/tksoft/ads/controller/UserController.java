@@ -5,6 +5,7 @@ import ru.spb.tksoft.ads.dto.request.NewPasswordRequestDto;
 import ru.spb.tksoft.ads.dto.request.UpdateUserRequestDto;
 import ru.spb.tksoft.ads.dto.response.UpdateUserResponseDto;
 import ru.spb.tksoft.ads.dto.response.UserResponseDto;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
 import ru.spb.tksoft.ads.service.UserService;
 import ru.spb.tksoft.ads.service.UserServiceCached;
 import org.springframework.core.io.Resource;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -108,14 +110,20 @@ public class UserController {
      * Get avatar by link.
      * 
      * Returns 200/OK, 404/Not Found.
+     * Returns 400/BAD_REQUEST if size is unknown.
      * 
      * @param userId - User ID.
-     * @return Image resource.
+     * @param size - Rendition: thumb, card, full; original if absent.
+     * @param v - Image version; if it is the current one, response is cacheable forever.
+     * @return Image resource, 304/Not Modified or 206/Partial Content on conditional/range
+     *         request.
      */
     @ResponseStatus(HttpStatus.OK)
     @GetMapping("/avatar/{userId}")
-    public ResponseEntity<Resource> getAvatar(@PathVariable(required = true) long userId) {
+    public ResponseEntity<Resource> getAvatar(@PathVariable(required = true) long userId,
+            @RequestParam(required = false) String size,
+            @RequestParam(required = false) String v) {
 
-        return userServiceCached.getAvatar(userId);
+        return userService.getAvatar(userId, ImageRendition.fromParameter(size), v);
     }
 }
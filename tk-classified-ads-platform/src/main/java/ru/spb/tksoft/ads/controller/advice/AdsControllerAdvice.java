@@ -14,16 +14,19 @@ import ru.spb.tksoft.ads.exception.TkAdNotOwnedException;
 import ru.spb.tksoft.ads.exception.TkCommentNotFoundException;
 import ru.spb.tksoft.ads.exception.TkCommentNotOwnedException;
 import ru.spb.tksoft.ads.exception.TkDeletingMediaException;
+import ru.spb.tksoft.ads.exception.TkImportJobNotFoundException;
+import ru.spb.tksoft.ads.exception.TkInvalidParameterException;
 import ru.spb.tksoft.ads.exception.TkMediaNotFoundException;
 import ru.spb.tksoft.ads.exception.TkNullArgumentException;
+import ru.spb.tksoft.ads.exception.TkRoleRequiredException;
 import ru.spb.tksoft.ads.exception.TkSavingMediaException;
+import ru.spb.tksoft.ads.exception.TkServiceBusyException;
+import ru.spb.tksoft.ads.exception.TkTooManyRequestsException;
 import ru.spb.tksoft.ads.exception.TkSizeException;
 import ru.spb.tksoft.ads.exception.TkUnsupportedMediaTypeException;
 import ru.spb.tksoft.ads.exception.TkUserExistsException;
 import ru.spb.tksoft.ads.exception.TkUserNotFoundException;
 import ru.spb.tksoft.common.controller.advice.AbstractBaseControllerAdvice;
-import ru.spb.tksoft.common.controller.dto.CommonErrorResponseDto;
-import ru.spb.tksoft.utils.log.LogEx;
 
 /**
  * Application-specific exceptions.
@@ -53,16 +56,13 @@ public class AdsControllerAdvice extends AbstractBaseControllerAdvice {
      */
     @ExceptionHandler({
             TkAdNotFoundException.class, TkCommentNotFoundException.class,
-            TkMediaNotFoundException.class, TkUserNotFoundException.class})
+            TkMediaNotFoundException.class, TkUserNotFoundException.class,
+            TkImportJobNotFoundException.class})
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 1)
-    public ResponseEntity<CommonErrorResponseDto> handleNotFound(TkAdBaseException e) {
+    public ResponseEntity<Object> handleNotFound(TkAdBaseException e) {
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN,
-                e.getCode(), e.getMessage());
-
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(e.getCode(), e.getMessage()),
-                HttpStatus.NOT_FOUND);
+        return toErrorResponse(log, e.getCode(), HttpStatus.NOT_FOUND,
+                e.getMessage(), () -> "", e);
     }
 
     /**
@@ -71,16 +71,13 @@ public class AdsControllerAdvice extends AbstractBaseControllerAdvice {
      * @param e Exception.
      * @return Response entity.
      */
-    @ExceptionHandler({TkAdNotOwnedException.class, TkCommentNotOwnedException.class})
+    @ExceptionHandler({TkAdNotOwnedException.class, TkCommentNotOwnedException.class,
+            TkRoleRequiredException.class})
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 2)
-    public ResponseEntity<CommonErrorResponseDto> handleForbidden(TkAdBaseException e) {
-
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN,
-                e.getCode(), e.getMessage());
+    public ResponseEntity<Object> handleForbidden(TkAdBaseException e) {
 
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(e.getCode(), e.getMessage()),
-                HttpStatus.FORBIDDEN);
+        return toErrorResponse(log, e.getCode(), HttpStatus.FORBIDDEN,
+                e.getMessage(), () -> "", e);
     }
 
     /**
@@ -91,16 +88,12 @@ public class AdsControllerAdvice extends AbstractBaseControllerAdvice {
      */
     @ExceptionHandler({TkNullArgumentException.class,
             TkSizeException.class, TkUnsupportedMediaTypeException.class,
-            TkUserExistsException.class})
+            TkUserExistsException.class, TkInvalidParameterException.class})
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 3)
-    public ResponseEntity<CommonErrorResponseDto> handleBadRequest(TkAdBaseException e) {
-
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN,
-                e.getCode(), e.getMessage());
+    public ResponseEntity<Object> handleBadRequest(TkAdBaseException e) {
 
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(e.getCode(), e.getMessage()),
-                HttpStatus.BAD_REQUEST);
+        return toErrorResponse(log, e.getCode(), HttpStatus.BAD_REQUEST,
+                e.getMessage(), () -> "", e);
     }
 
     /**
@@ -112,14 +105,38 @@ public class AdsControllerAdvice extends AbstractBaseControllerAdvice {
     @ExceptionHandler({TkDeletingMediaException.class,
             TkSavingMediaException.class})
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 3)
-    public ResponseEntity<CommonErrorResponseDto> handleInternalError(TkAdBaseException e) {
+    public ResponseEntity<Object> handleInternalError(TkAdBaseException e) {
+
+        return toErrorResponse(log, e.getCode(), HttpStatus.INTERNAL_SERVER_ERROR,
+                e.getMessage(), () -> "", e);
+    }
+
+    /**
+     * Exceptions that cause the error "SERVICE_UNAVAILABLE"
+     * 
+     * @param e Exception.
+     * @return Response entity.
+     */
+    @ExceptionHandler({TkServiceBusyException.class})
+    @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 3)
+    public ResponseEntity<Object> handleServiceBusy(TkAdBaseException e) {
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN,
-                e.getCode(), e.getMessage());
+        return toErrorResponse(log, e.getCode(), HttpStatus.SERVICE_UNAVAILABLE,
+                e.getMessage(), () -> "", e);
+    }
+
+    /**
+     * Exceptions that cause the error "TOO_MANY_REQUESTS"
+     * 
+     * @param e Exception.
+     * @return Response entity.
+     */
+    @ExceptionHandler({TkTooManyRequestsException.class})
+    @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 3)
+    public ResponseEntity<Object> handleTooManyRequests(TkAdBaseException e) {
 
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(e.getCode(), e.getMessage()),
-                HttpStatus.INTERNAL_SERVER_ERROR);
+        return toErrorResponse(log, e.getCode(), HttpStatus.TOO_MANY_REQUESTS,
+                e.getMessage(), () -> "", e);
     }
 
 }
@@ -0,0 +1,121 @@
+package ru.spb.tksoft.ads.converter;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resource converter writing files without copying them through heap buffers.
+ * 
+ * On Tomcat with sendfile support the file is handed over to the connector (sendfile(2)).
+ * Otherwise it is written with {@link FileChannel#transferTo}. Non-file resources and byte
+ * ranges are written by the base converters.
+ * 
+ * The file is opened before anything is sent: Content-Length is taken from the open file, and
+ * a file deleted meanwhile gives 404 instead of a truncated body.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class ZeroCopyResourceHttpMessageConverter extends ResourceHttpMessageConverter {
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static HttpServletRequest getCurrentRequest() {
+
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes a
+                ? a.getRequest()
+                : null;
+    }
+
+    @Override
+    protected Long getContentLength(Resource resource, MediaType contentType)
+            throws IOException {
+
+        try {
+            return super.getContentLength(resource, contentType);
+        } catch (NoSuchFileException ex) {
+            // Deleted meanwhile: writeContent answers 404.
+            return null;
+        }
+    }
+
+    @Override
+    protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+
+        if (!resource.isFile()) {
+            super.writeContent(resource, outputMessage);
+            return;
+        }
+
+        final Path path = resource.getFile().toPath();
+        final FileChannel in;
+        try {
+            in = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException ex) {
+            writeNotFound(outputMessage);
+            return;
+        }
+
+        try (in) {
+
+            // Headers are not committed yet: length of the open file is the one to send.
+            final long size = in.size();
+            outputMessage.getHeaders().setContentLength(size);
+
+            final HttpServletRequest request = getCurrentRequest();
+            if (request != null
+                    && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+
+                request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, size);
+                return;
+            }
+
+            final WritableByteChannel out = Channels.newChannel(outputMessage.getBody());
+            long position = 0;
+            while (position < size) {
+                final long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    // Blocking target: no progress means the file got shorter than announced.
+                    throw new IOException("File truncated at " + position + " of " + size
+                            + " bytes: " + path);
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    private static void writeNotFound(final HttpOutputMessage outputMessage) {
+
+        if (outputMessage instanceof ServerHttpResponse response) {
+            response.setStatusCode(HttpStatus.NOT_FOUND);
+        }
+
+        final HttpHeaders headers = outputMessage.getHeaders();
+        headers.remove(HttpHeaders.CONTENT_TYPE);
+        headers.remove(HttpHeaders.ETAG);
+        headers.remove(HttpHeaders.LAST_MODIFIED);
+        headers.remove(HttpHeaders.CACHE_CONTROL);
+        headers.setContentLength(0);
+    }
+}
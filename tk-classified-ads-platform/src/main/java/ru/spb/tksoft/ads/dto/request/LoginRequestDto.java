@@ -8,10 +8,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * Login request, basic authentication.
+ * Login request.
  * 
- * No response DTO. Http response:<br>
- * "201": description: Created <br>
+ * Response DTO: LoginResponseDto. Http response:<br>
+ * "200": description: OK, bearer token <br>
  * "401": description: Unauthorized <br>
  * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
@@ -2,17 +2,22 @@ package ru.spb.tksoft.ads.dto.response;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Ad extended response DTO.
  * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
-@Data
-@NoArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 @AllArgsConstructor
 @JsonPropertyOrder({"pk", "authorFirstName", "authorLastName", "description", "email", "image",
         "phone", "price", "title"})
@@ -0,0 +1,29 @@
+package ru.spb.tksoft.ads.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Ad page response DTO: ad with author and the first page of comments.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@AllArgsConstructor
+@JsonPropertyOrder({"ad", "comments"})
+public class AdFullResponseDto {
+
+    /** Ad with author. */
+    private AdExtendedResponseDto ad;
+
+    /** First page of comments, with continuation token for the next one. */
+    private CommentsPageResponseDto comments;
+}
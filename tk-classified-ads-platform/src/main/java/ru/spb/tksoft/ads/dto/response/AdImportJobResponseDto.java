@@ -0,0 +1,42 @@
+package ru.spb.tksoft.ads.dto.response;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.spb.tksoft.ads.enumeration.AdImportStatus;
+
+/**
+ * Ads import job response DTO: status and progress.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "status", "total", "imagesStored", "imported", "rejected",
+        "errors"})
+public class AdImportJobResponseDto {
+
+    /** Job ID. */
+    private String id;
+
+    /** Job status. */
+    private AdImportStatus status;
+
+    /** Ads in the manifest, 0 until it is read. */
+    private int total;
+
+    /** Images validated and stored so far. */
+    private int imagesStored;
+
+    /** Ads inserted. */
+    private int imported;
+
+    /** Ads and images rejected. */
+    private int rejected;
+
+    /** First errors, by manifest position or archive entry name. */
+    private List<String> errors;
+}
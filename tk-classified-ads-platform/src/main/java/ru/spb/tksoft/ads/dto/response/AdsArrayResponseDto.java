@@ -1,18 +1,26 @@
 package ru.spb.tksoft.ads.dto.response;
 
+import java.util.Collections;
 import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Ads array response DTO.
  * 
+ * Read-only, cached per owner.
+ * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
-@Data
-@NoArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 @AllArgsConstructor
 @JsonPropertyOrder({"count", "results"})
 public class AdsArrayResponseDto {
@@ -22,4 +30,9 @@ public class AdsArrayResponseDto {
 
     /** Items array. */
     private Set<AdResponseDto> results;
+
+    /** @return Unmodifiable items array. */
+    public Set<AdResponseDto> getResults() {
+        return results == null ? null : Collections.unmodifiableSet(results);
+    }
 }
@@ -0,0 +1,28 @@
+package ru.spb.tksoft.ads.dto.response;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ads page response DTO: keyset-paginated listing.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"count", "results", "next"})
+public class AdsPageResponseDto {
+
+    /** Items count on this page. */
+    private int count;
+
+    /** Items array, newest first. */
+    private List<AdResponseDto> results;
+
+    /** Continuation token for the next page, null on the last page. */
+    private String next;
+}
@@ -1,6 +1,6 @@
 package ru.spb.tksoft.ads.dto.response;
 
-import java.util.Set;
+import java.util.List;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,6 +20,6 @@ public class CommentsArrayResponseDto {
     /** Items count. */
     private int count;
 
-    /** Items array. */
-    private Set<CommentResponseDto> results;
+    /** Items array, newest first. */
+    private List<CommentResponseDto> results;
 }
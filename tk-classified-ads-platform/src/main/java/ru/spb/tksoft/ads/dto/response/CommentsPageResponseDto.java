@@ -0,0 +1,41 @@
+package ru.spb.tksoft.ads.dto.response;
+
+import java.util.Collections;
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Comments page response DTO: keyset-paginated comments of an ad.
+ *
+ * Read-only: the first page is kept in the near cache and shared by callers.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@AllArgsConstructor
+@JsonPropertyOrder({"count", "results", "next"})
+public class CommentsPageResponseDto {
+
+    /** Items count on this page. */
+    private int count;
+
+    /** Items array, newest first. */
+    private List<CommentResponseDto> results;
+
+    /** Continuation token for the next page, null on the last page. */
+    private String next;
+
+    /** @return Unmodifiable items array. */
+    public List<CommentResponseDto> getResults() {
+        return results == null ? null : Collections.unmodifiableList(results);
+    }
+}
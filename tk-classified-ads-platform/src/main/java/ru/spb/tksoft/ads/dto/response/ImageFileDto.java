@@ -0,0 +1,27 @@
+package ru.spb.tksoft.ads.dto.response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Stored image file: what is needed to serve it without loading entities. Cached.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+@AllArgsConstructor
+public class ImageFileDto {
+
+    /** File name, null if there is no image. */
+    private String name;
+
+    /** Media type. */
+    private String mediatype;
+}
@@ -0,0 +1,27 @@
+package ru.spb.tksoft.ads.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Login response DTO: bearer token.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"token", "tokenType", "expiresIn"})
+public class LoginResponseDto {
+
+    /** Access token (JWT). */
+    private String token;
+
+    /** Token type for Authorization header. */
+    private String tokenType;
+
+    /** Token lifetime, seconds. */
+    private long expiresIn;
+}
@@ -0,0 +1,24 @@
+package ru.spb.tksoft.ads.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Storage migration response DTO: result of one batch.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"moved", "completed"})
+public class StorageMigrationResponseDto {
+
+    /** Files moved by this batch. */
+    private int moved;
+
+    /** True if nothing is left to move. */
+    private boolean completed;
+}
@@ -1,8 +1,11 @@
 package ru.spb.tksoft.ads.dto.response;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ru.spb.tksoft.ads.enumeration.UserRole;
 
 /**
@@ -10,8 +13,10 @@ import ru.spb.tksoft.ads.enumeration.UserRole;
  * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
-@Data
-@NoArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
 @AllArgsConstructor
 public class UserResponseDto {
 
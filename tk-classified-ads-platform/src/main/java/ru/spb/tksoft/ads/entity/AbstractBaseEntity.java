@@ -0,0 +1,63 @@
+package ru.spb.tksoft.ads.entity;
+
+import org.hibernate.proxy.HibernateProxy;
+import jakarta.persistence.MappedSuperclass;
+
+/**
+ * Base class for entities.
+ *
+ * Equality is by ID and effective class, text is class and ID only: associations are never
+ * touched. Methods are final, so a lazy proxy runs them without being initialized.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@MappedSuperclass
+public abstract class AbstractBaseEntity {
+
+    /** IDs taken from a sequence at once: must be equal to INCREMENT BY of ID sequences. */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * @return Entity ID, null if not persisted yet.
+     */
+    public abstract Long getId();
+
+    /**
+     * Entity class of the object, not of its proxy.
+     */
+    private static Class<?> getEffectiveClass(final Object obj) {
+
+        return obj instanceof HibernateProxy proxy
+                ? proxy.getHibernateLazyInitializer().getPersistentClass()
+                : obj.getClass();
+    }
+
+    @Override
+    public final boolean equals(Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getEffectiveClass(this) != getEffectiveClass(obj)) {
+            return false;
+        }
+
+        final Long id = getId();
+        return id != null && id.equals(((AbstractBaseEntity) obj).getId());
+    }
+
+    /**
+     * Hash code does not depend on ID: it must not change when the entity is persisted.
+     */
+    @Override
+    public final int hashCode() {
+
+        return getEffectiveClass(this).hashCode();
+    }
+
+    @Override
+    public final String toString() {
+
+        return getEffectiveClass(this).getSimpleName() + "(id=" + getId() + ")";
+    }
+}
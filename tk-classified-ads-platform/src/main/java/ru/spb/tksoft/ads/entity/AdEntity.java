@@ -1,8 +1,6 @@
 package ru.spb.tksoft.ads.entity;
 
 import java.math.BigDecimal;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -11,7 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
@@ -19,24 +17,31 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 /**
  * Ad entity.
  * 
+ * Image is not mapped here: the non-owning side of one-to-one cannot be lazy, it would cost an
+ * extra select for every ad loaded. See {@link ImageEntity}.
+ * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
-@Data
+@Getter
+@Setter
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "\"ad\"")
-public class AdEntity {
+public class AdEntity extends AbstractBaseEntity {
 
     /** Ad ID. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ad_id_seq")
+    @SequenceGenerator(name = "ad_id_seq", sequenceName = "ad_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /** User. */
@@ -45,13 +50,6 @@ public class AdEntity {
     @NotNull
     private UserEntity user;
 
-    /** Image. */
-    @JsonManagedReference("ad-image")
-    @OneToOne(mappedBy = "ad",
-            cascade = CascadeType.ALL,
-            orphanRemoval = true)
-    private ImageEntity image;
-
     /** Title. */
     @Column(nullable = false, length = 32)
     @Size(min = 4, max = 32)
@@ -84,16 +82,4 @@ public class AdEntity {
         this.price = price;
         this.description = description;
     }
-
-    /** Set link to an image. */
-    public void setImage(ImageEntity image) {
-
-        if (image == null) {
-            if (this.image != null)
-                this.image.setAd(null);
-        } else {
-            image.setAd(this);
-        }
-        this.image = image;
-    }
 }
@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -16,24 +17,28 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 /**
  * Avatar entity (user's image).
  * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
-@Data
+@Getter
+@Setter
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "\"avatar\"")
-public class AvatarEntity {
+public class AvatarEntity extends AbstractBaseEntity {
 
     /** Avatar ID. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "avatar_id_seq")
+    @SequenceGenerator(name = "avatar_id_seq", sequenceName = "avatar_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     /** Owner user. */
@@ -43,8 +48,8 @@ public class AvatarEntity {
     @NotNull
     private UserEntity user;
 
-    /** Name. */
-    @Column(nullable = false, unique = true, length = 256)
+    /** Name, shared by rows referencing the same stored content. */
+    @Column(nullable = false, length = 256)
     @Size(min = 1, max = 256)
     @NotBlank
     private String name;
@@ -56,7 +61,7 @@ public class AvatarEntity {
     private int size;
 
     /** Mediatype. */
-    @Column(nullable = false, unique = true, length = 128)
+    @Column(nullable = false, length = 128)
     @Size(min = 1, max = 128)
     @NotBlank
     private String mediatype;
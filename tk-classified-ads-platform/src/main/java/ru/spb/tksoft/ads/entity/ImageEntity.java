@@ -1,12 +1,11 @@
 package ru.spb.tksoft.ads.entity;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Max;
@@ -15,35 +14,38 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 /**
  * Image entity (ad's image).
  * 
+ * Shares primary key with the owner ad: image of an ad is found by ad ID without a join.
+ * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
-@Data
+@Getter
+@Setter
 @Entity
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "\"image\"")
-public class ImageEntity {
+public class ImageEntity extends AbstractBaseEntity {
 
-    /** Image ID. */
+    /** Image ID, the same as owner ad ID. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     /** Owner ad. */
-    @JsonBackReference("ad-image")
-    @OneToOne
-    @JoinColumn(name = "ad_id", nullable = false)
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ad_id")
     @NotNull
     private AdEntity ad;
 
-    /** Name. */
-    @Column(nullable = false, unique = true, length = 256)
+    /** Name, shared by rows referencing the same stored content. */
+    @Column(nullable = false, length = 256)
     @Size(min = 1, max = 256)
     @NotBlank
     private String name;
@@ -55,7 +57,7 @@ public class ImageEntity {
     private int size;
 
     /** Mediatype. */
-    @Column(nullable = false, unique = true, length = 128)
+    @Column(nullable = false, length = 128)
     @Size(min = 1, max = 128)
     @NotBlank
     private String mediatype;
@@ -74,4 +76,11 @@ public class ImageEntity {
         this.size = size;
         this.mediatype = mediatype;
     }
+
+    /** Constructor of new ad's image. */
+    public ImageEntity(AdEntity ad, String name, int size, String mediatype) {
+
+        this(name, size, mediatype);
+        this.ad = ad;
+    }
 }
@@ -0,0 +1,21 @@
+package ru.spb.tksoft.ads.enumeration;
+
+/**
+ * Status of ads import job.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public enum AdImportStatus {
+
+    /** Archive is accepted, job has not started yet. */
+    QUEUED,
+
+    /** Images are being stored or rows inserted. */
+    RUNNING,
+
+    /** Valid ads are imported, rejected ones are listed in errors. */
+    COMPLETED,
+
+    /** Job has stopped on error; ads of already committed transactions stay imported. */
+    FAILED
+}
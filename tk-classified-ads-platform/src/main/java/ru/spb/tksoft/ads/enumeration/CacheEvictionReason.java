@@ -0,0 +1,19 @@
+package ru.spb.tksoft.ads.enumeration;
+
+/**
+ * Reason of cache eviction, used as a metric tag.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public enum CacheEvictionReason {
+
+    AD_CREATED, AD_UPDATED, AD_IMAGE_UPDATED, AD_DELETED,
+    COMMENT_CREATED, COMMENT_UPDATED, COMMENT_DELETED, USER_UPDATED, MAINTENANCE;
+
+    /**
+     * @return Tag value: lowercase name.
+     */
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,62 @@
+package ru.spb.tksoft.ads.enumeration;
+
+import ru.spb.tksoft.ads.exception.TkInvalidParameterException;
+
+/**
+ * Image renditions generated at upload time.
+ * 
+ * Rendition is a downscaled copy that fits into a square of given side, stored next to the
+ * original. Images already smaller than the square are served as originals.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public enum ImageRendition {
+
+    /** List tile. */
+    THUMB(240),
+
+    /** Ad card, profile. */
+    CARD(640),
+
+    /** Full view. */
+    FULL(1280);
+
+    /** Name of the request parameter selecting rendition. */
+    public static final String PARAMETER_NAME = "size";
+
+    private final int maxSide;
+
+    ImageRendition(int maxSide) {
+        this.maxSide = maxSide;
+    }
+
+    /** @return Max width and height, pixels. */
+    public int getMaxSide() {
+        return maxSide;
+    }
+
+    /** @return Value of the request parameter and file name suffix. */
+    public String getParameterValue() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Rendition by request parameter.
+     * 
+     * @param value Parameter value, case insensitive.
+     * @return Rendition or null if value is null or blank (original requested).
+     * @throws TkInvalidParameterException If value is unknown.
+     */
+    public static ImageRendition fromParameter(final String value) {
+
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        for (ImageRendition rendition : values()) {
+            if (rendition.getParameterValue().equalsIgnoreCase(value.trim())) {
+                return rendition;
+            }
+        }
+        throw new TkInvalidParameterException(PARAMETER_NAME);
+    }
+}
@@ -7,5 +7,5 @@ package ru.spb.tksoft.ads.enumeration;
  */
 public enum UserRole {
 
-    ADMIN, USER;
+    ADMIN, USER, DEALER;
 }
@@ -23,8 +23,24 @@ public abstract class TkAdBaseException extends RuntimeException {
      */
     protected TkAdBaseException(int code, String message) {
 
-        super(message);
+        this(code, message, true);
+    }
+
+    /**
+     * Base constructor.
+     * 
+     * Expected errors (not found, bad request etc.) should not capture stack trace: capturing
+     * is the most expensive part of throwing and the trace tells nothing about the client's
+     * mistake.
+     * 
+     * @param code Error code.
+     * @param message Error message.
+     * @param captureStackTrace False to skip stack trace capture.
+     */
+    protected TkAdBaseException(int code, String message, boolean captureStackTrace) {
+
+        super(message, null, true, captureStackTrace);
         this.code = code;
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, this.code, this);
+        LogEx.error(log, LogEx.THIS_METHOD, LogEx.EXCEPTION_THROWN, this.code, this);
     }
 }
@@ -20,6 +20,6 @@ public class TkAdNotFoundException extends TkAdBaseException {
      */
     public TkAdNotFoundException(String subMessage) {
 
-        super(CODE, MESSAGE + ": " + subMessage);
+        super(CODE, MESSAGE + ": " + subMessage, false);
     }
 }
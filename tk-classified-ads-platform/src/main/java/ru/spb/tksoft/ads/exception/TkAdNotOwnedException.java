@@ -20,6 +20,6 @@ public class TkAdNotOwnedException extends TkAdBaseException {
      */
     public TkAdNotOwnedException(long adId) {
 
-        super(CODE, MESSAGE + ": " + adId);
+        super(CODE, MESSAGE + ": " + adId, false);
     }
 }
@@ -20,6 +20,6 @@ public class TkCommentNotFoundException extends TkAdBaseException {
      */
     public TkCommentNotFoundException(String subMessage) {
 
-        super(CODE, MESSAGE + ": " + subMessage);
+        super(CODE, MESSAGE + ": " + subMessage, false);
     }
 }
@@ -20,6 +20,6 @@ public class TkCommentNotOwnedException extends TkAdBaseException {
      */
     public TkCommentNotOwnedException(long adId) {
 
-        super(CODE, MESSAGE + ": " + adId);
+        super(CODE, MESSAGE + ": " + adId, false);
     }
 }
@@ -0,0 +1,25 @@
+package ru.spb.tksoft.ads.exception;
+
+/**
+ * Ads import job not found.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class TkImportJobNotFoundException extends TkAdBaseException {
+
+    /** Error code. */
+    public static final int CODE = 224;
+
+    /** Error message. */
+    public static final String MESSAGE = "Import job not found";
+
+    /**
+     * Constructor.
+     * 
+     * @param subMessage Additional message.
+     */
+    public TkImportJobNotFoundException(String subMessage) {
+
+        super(CODE, MESSAGE + ": " + subMessage, false);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.spb.tksoft.ads.exception;
+
+import java.util.Objects;
+
+/**
+ * Invalid request parameter: malformed cursor, unknown selector, etc.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class TkInvalidParameterException extends TkAdBaseException {
+
+    /** Error code. */
+    public static final int CODE = 431;
+
+    /** Error message. */
+    public static final String MESSAGE = "Invalid parameter";
+
+    /**
+     * Constructor.
+     *
+     * @param parameterName Name of parameter.
+     */
+    public TkInvalidParameterException(String parameterName) {
+
+        super(CODE, MESSAGE + ": " + (Objects.isNull(parameterName) ? "" : parameterName), false);
+    }
+}
@@ -20,6 +20,6 @@ public class TkMediaNotFoundException extends TkAdBaseException {
      */
     public TkMediaNotFoundException(String mediaId) {
 
-        super(CODE, MESSAGE + ": " + mediaId);
+        super(CODE, MESSAGE + ": " + mediaId, false);
     }
 }
@@ -22,6 +22,6 @@ public class TkNullArgumentException extends TkAdBaseException {
      */
     public TkNullArgumentException(String argumentName) {
 
-        super(CODE, MESSAGE + ": " + (Objects.isNull(argumentName) ? "" : argumentName));
+        super(CODE, MESSAGE + ": " + (Objects.isNull(argumentName) ? "" : argumentName), false);
     }
 }
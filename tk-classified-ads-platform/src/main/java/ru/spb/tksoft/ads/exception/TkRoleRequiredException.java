@@ -0,0 +1,25 @@
+package ru.spb.tksoft.ads.exception;
+
+/**
+ * User has no role required for the operation.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class TkRoleRequiredException extends TkAdBaseException {
+
+    /** Error code. */
+    public static final int CODE = 127;
+
+    /** Error message. */
+    public static final String MESSAGE = "Role required";
+
+    /**
+     * Constructor.
+     * 
+     * @param role Required role.
+     */
+    public TkRoleRequiredException(String role) {
+
+        super(CODE, MESSAGE + ": " + role, false);
+    }
+}
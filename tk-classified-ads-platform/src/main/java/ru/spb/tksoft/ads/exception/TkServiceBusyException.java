@@ -0,0 +1,27 @@
+package ru.spb.tksoft.ads.exception;
+
+import java.util.Objects;
+
+/**
+ * Shared resource exhausted, request may be retried later.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class TkServiceBusyException extends TkAdBaseException {
+
+    /** Error code. */
+    public static final int CODE = 503;
+
+    /** Error message. */
+    public static final String MESSAGE = "Service busy";
+
+    /**
+     * Constructor.
+     * 
+     * @param resourceName Name of exhausted resource.
+     */
+    public TkServiceBusyException(String resourceName) {
+
+        super(CODE, MESSAGE + ": " + (Objects.isNull(resourceName) ? "" : resourceName), false);
+    }
+}
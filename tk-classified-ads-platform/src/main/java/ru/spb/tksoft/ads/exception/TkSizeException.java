@@ -22,6 +22,6 @@ public class TkSizeException extends TkAdBaseException {
      */
     public TkSizeException(String objectName) {
 
-        super(CODE, MESSAGE + ": " + (Objects.isNull(objectName) ? "" : objectName));
+        super(CODE, MESSAGE + ": " + (Objects.isNull(objectName) ? "" : objectName), false);
     }
 }
@@ -0,0 +1,28 @@
+package ru.spb.tksoft.ads.exception;
+
+import java.util.Objects;
+
+/**
+ * Per-user limit of concurrent operations reached, request may be retried later.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class TkTooManyRequestsException extends TkAdBaseException {
+
+    /** Error code. */
+    public static final int CODE = 429;
+
+    /** Error message. */
+    public static final String MESSAGE = "Too many requests";
+
+    /**
+     * Constructor.
+     * 
+     * @param operationName Name of limited operation.
+     */
+    public TkTooManyRequestsException(String operationName) {
+
+        super(CODE, MESSAGE + ": " + (Objects.isNull(operationName) ? "" : operationName),
+                false);
+    }
+}
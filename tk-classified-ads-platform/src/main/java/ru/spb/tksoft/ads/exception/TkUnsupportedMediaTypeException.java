@@ -22,6 +22,6 @@ public class TkUnsupportedMediaTypeException extends TkAdBaseException {
      */
     public TkUnsupportedMediaTypeException(String mediaType) {
 
-        super(CODE, MESSAGE + ": " + (Objects.isNull(mediaType) ? "" : mediaType));
+        super(CODE, MESSAGE + ": " + (Objects.isNull(mediaType) ? "" : mediaType), false);
     }
 }
@@ -22,6 +22,6 @@ public class TkUserExistsException extends TkAdBaseException {
      */
     public TkUserExistsException(String userName) {
 
-        super(CODE, MESSAGE + ": " + (Objects.isNull(userName) ? "null" : userName));
+        super(CODE, MESSAGE + ": " + (Objects.isNull(userName) ? "null" : userName), false);
     }
 }
@@ -29,6 +29,7 @@ public class TkUserNotFoundException extends TkAdBaseException {
     public TkUserNotFoundException(String userName, boolean authenticationFailed) {
 
         super(CODE, authenticationFailed ? MESSAGE_AUTH
-                : MESSAGE + ": " + (Objects.isNull(userName) ? "null" : userName));
+                : MESSAGE + ": " + (Objects.isNull(userName) ? "null" : userName),
+                false);
     }
 }
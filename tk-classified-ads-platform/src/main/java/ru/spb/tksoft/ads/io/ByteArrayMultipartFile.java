@@ -0,0 +1,77 @@
+package ru.spb.tksoft.ads.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Uploaded file already read into memory, e.g. an entry of uploaded archive.
+ * 
+ * Lets such content go through the same validation and storage as a multipart upload.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class ByteArrayMultipartFile implements MultipartFile {
+
+    private final String name;
+    private final String contentType;
+    private final byte[] content;
+
+    /**
+     * Constructor.
+     * 
+     * @param name Original file name.
+     * @param contentType Content type.
+     * @param content File content.
+     */
+    public ByteArrayMultipartFile(final String name, final String contentType,
+            final byte[] content) {
+
+        this.name = name;
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return name;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return content.length == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return content.length;
+    }
+
+    @Override
+    public byte[] getBytes() {
+        return content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void transferTo(final File dest) throws IOException {
+        Files.write(dest.toPath(), content);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.spb.tksoft.ads.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.stereotype.Component;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.spb.tksoft.ads.config.IoBufferPoolValuesConfig;
+import ru.spb.tksoft.ads.exception.TkServiceBusyException;
+
+/**
+ * Bounded pool of reusable I/O buffers.
+ * 
+ * Buffers are allocated lazily up to the cap and never freed, so concurrent uploads neither
+ * allocate short-lived large arrays nor grow memory beyond bufferSize * maxBuffers.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Component
+public class IoBufferPool {
+
+    /** Gauge of buffers in use. */
+    public static final String METRIC_IN_USE = "ads.io.buffers.in-use";
+
+    /** Gauge of allocated buffers. */
+    public static final String METRIC_ALLOCATED = "ads.io.buffers.allocated";
+
+    /** Gauge of pool memory cap, bytes. */
+    public static final String METRIC_CAPACITY = "ads.io.buffers.capacity";
+
+    /** Timer of waiting for a buffer. */
+    public static final String METRIC_WAIT = "ads.io.buffers.wait";
+
+    private final IoBufferPoolValuesConfig config;
+
+    private final BlockingQueue<ByteBuffer> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    private final Timer waitTimer;
+
+    /**
+     * Constructor.
+     * 
+     * @param config Pool config.
+     * @param meterRegistry Meter registry.
+     */
+    public IoBufferPool(final IoBufferPoolValuesConfig config,
+            final MeterRegistry meterRegistry) {
+
+        this.config = config;
+        this.free = new ArrayBlockingQueue<>(config.getMaxBuffers());
+
+        Gauge.builder(METRIC_IN_USE, inUse, AtomicInteger::get)
+                .description("I/O buffers in use")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_ALLOCATED, allocated, AtomicInteger::get)
+                .description("I/O buffers allocated")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_CAPACITY, config,
+                c -> (double) c.getBufferSize() * c.getMaxBuffers())
+                .description("I/O buffer pool memory cap")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_WAIT)
+                .description("Time spent waiting for an I/O buffer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a buffer; it must be returned with {@link #release(ByteBuffer)}.
+     * 
+     * @return Cleared buffer.
+     * @throws TkServiceBusyException If no buffer became free within timeout.
+     */
+    public ByteBuffer acquire() {
+
+        final long start = System.nanoTime();
+        try {
+            ByteBuffer buffer = free.poll();
+            if (buffer == null) {
+                buffer = allocate();
+            }
+            if (buffer == null) {
+                buffer = free.poll(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+            }
+            if (buffer == null) {
+                throw new TkServiceBusyException("I/O buffers");
+            }
+
+            inUse.incrementAndGet();
+            return buffer.clear();
+
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TkServiceBusyException("I/O buffers");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ByteBuffer allocate() {
+
+        if (allocated.incrementAndGet() > config.getMaxBuffers()) {
+            allocated.decrementAndGet();
+            return null;
+        }
+
+        return config.isDirect()
+                ? ByteBuffer.allocateDirect(config.getBufferSize())
+                : ByteBuffer.allocate(config.getBufferSize());
+    }
+
+    /**
+     * Return the buffer to the pool.
+     * 
+     * @param buffer Buffer taken with {@link #acquire()}.
+     */
+    public void release(final ByteBuffer buffer) {
+
+        if (buffer != null) {
+            inUse.decrementAndGet();
+            free.offer(buffer.clear());
+        }
+    }
+}
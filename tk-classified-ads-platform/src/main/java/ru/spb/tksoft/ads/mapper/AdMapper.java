@@ -1,13 +1,16 @@
 package ru.spb.tksoft.ads.mapper;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Set;
 import jakarta.validation.constraints.NotNull;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateAdRequestDto;
 import ru.spb.tksoft.ads.dto.response.AdExtendedResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdsPageResponseDto;
 import ru.spb.tksoft.ads.entity.AdEntity;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
 import ru.spb.tksoft.ads.projection.AdExtendedResponseProjection;
 import ru.spb.tksoft.ads.projection.AdResponseProjection;
 import ru.spb.tksoft.ads.service.ResourceService;
@@ -36,7 +39,8 @@ public final class AdMapper {
 
         return new AdResponseDto(projection.getId(),
                 projection.getUserId(),
-                resourceService.getAdImageUrl(projection.getImageId()),
+                resourceService.getAdImageUrl(projection.getImageId(), ImageRendition.THUMB,
+                        ResourceService.getImageVersion(projection.getImageName())),
                 projection.getPrice().intValue(),
                 projection.getTitle());
     }
@@ -55,20 +59,38 @@ public final class AdMapper {
         return new AdsArrayResponseDto(responseSet.size(), responseSet);
     }
 
+    /**
+     * List of AdResponseDto to page DTO.
+     * 
+     * @param responseList Items of the page, ordered.
+     * @param next Continuation token, null on the last page.
+     * @return Response page.
+     */
+    @NotNull
+    public static AdsPageResponseDto toAdsPageDto(final List<AdResponseDto> responseList,
+            final String next) {
+
+        return new AdsPageResponseDto(responseList.size(), responseList, next);
+    }
+
     /**
      * AdEntity to DTO.
      * 
      * @param resourceService Resource service.
      * @param entity Ad entity.
+     * @param imageName Stored image file name, null if there is no image.
      * @return Response DTO.
      */
     @NotNull
     public static AdResponseDto toDto(final ResourceService resourceService,
-            final AdEntity entity) {
+            final AdEntity entity, final String imageName) {
 
         return new AdResponseDto(entity.getId(),
                 entity.getUser().getId(),
-                resourceService.getAdImageUrl(entity.getId()),
+                resourceService.getAdImageUrl(entity.getId(), ImageRendition.THUMB,
+                        imageName == null
+                                ? null
+                                : ResourceService.getImageVersion(imageName)),
                 entity.getPrice().intValue(),
                 entity.getTitle());
     }
@@ -102,7 +124,8 @@ public final class AdMapper {
                 projection.getId(),
                 projection.getTitle(), projection.getPrice().intValue(),
                 projection.getDescription(),
-                resourceService.getAdImageUrl(projection.getImageId()),
+                resourceService.getAdImageUrl(projection.getImageId(), ImageRendition.CARD,
+                        ResourceService.getImageVersion(projection.getImageName())),
                 projection.getAuthorFirstName(), projection.getAuthorLastName(),
                 projection.getEmail(), projection.getPhone());
     }
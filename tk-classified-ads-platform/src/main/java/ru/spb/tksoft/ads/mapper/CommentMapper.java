@@ -1,11 +1,14 @@
 package ru.spb.tksoft.ads.mapper;
 
-import java.util.Set;
+import java.util.List;
 import jakarta.validation.constraints.NotNull;
 import ru.spb.tksoft.ads.dto.response.CommentResponseDto;
 import ru.spb.tksoft.ads.dto.response.CommentsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentsPageResponseDto;
 import ru.spb.tksoft.ads.entity.CommentEntity;
 import ru.spb.tksoft.ads.entity.UserEntity;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
+import ru.spb.tksoft.ads.projection.CommentProjection;
 import ru.spb.tksoft.ads.service.ResourceService;
 
 /**
@@ -34,21 +37,71 @@ public final class CommentMapper {
 
         return new CommentResponseDto(comment.getId(),
                 userId,
-                resourceService.getAvatarImageUrl(userId),
+                resourceService.getAvatarImageUrl(userId, ImageRendition.THUMB),
                 user.getFirstName(),
                 comment.getCreatedAt().toEpochMilli(),
                 comment.getText());
     }
 
     /**
-     * Entity to DTO.
+     * Projection to DTO.
      * 
-     * @param resultSet Result set.
+     * @param projection Comment projection.
      * @return Comment DTO.
      */
     @NotNull
-    public static CommentsArrayResponseDto toDto(Set<CommentResponseDto> resultSet) {
+    public static CommentResponseDto toDto(final ResourceService resourceService,
+            final CommentProjection projection) {
+
+        Long userId = projection.getAuthorId();
+
+        return new CommentResponseDto(projection.getId(),
+                userId,
+                resourceService.getAvatarImageUrl(userId, ImageRendition.THUMB),
+                projection.getAuthorFirstName(),
+                projection.getCreatedAt().toEpochMilli(),
+                projection.getText());
+    }
+
+    /**
+     * DTO list to array DTO.
+     * 
+     * @param resultList Result list.
+     * @return Comments DTO.
+     */
+    @NotNull
+    public static CommentsArrayResponseDto toDto(List<CommentResponseDto> resultList) {
+
+        return new CommentsArrayResponseDto(resultList.size(), resultList);
+    }
+
+    /**
+     * Projections to page DTO.
+     * 
+     * @param projections Projections queried with one extra row, which only tells whether
+     *        there is a next page.
+     * @param pageSize Page size.
+     * @return Comments page DTO.
+     */
+    @NotNull
+    public static CommentsPageResponseDto toCommentsPageDto(final ResourceService resourceService,
+            final List<CommentProjection> projections, final int pageSize) {
+
+        final boolean hasNext = projections.size() > pageSize;
+        final List<CommentProjection> page =
+                hasNext ? projections.subList(0, pageSize) : projections;
+
+        final List<CommentResponseDto> resultList = page.stream()
+                .map(projection -> toDto(resourceService, projection))
+                .toList();
+
+        String next = null;
+        if (hasNext) {
+            final CommentProjection last = page.getLast();
+            next = CursorMapper.toToken(CursorMapper.toKeysetValue(last.getCreatedAt()),
+                    last.getId());
+        }
 
-        return new CommentsArrayResponseDto(resultSet.size(), resultSet);
+        return new CommentsPageResponseDto(resultList.size(), resultList, next);
     }
 }
@@ -0,0 +1,101 @@
+package ru.spb.tksoft.ads.mapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import jakarta.validation.constraints.NotNull;
+import ru.spb.tksoft.ads.exception.TkInvalidParameterException;
+
+/**
+ * Mapper for keyset cursors.
+ *
+ * Converting keyset values from/to opaque continuation token. Token is a base64url string,
+ * clients must not rely on its content.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class CursorMapper {
+
+    /** Name of the request parameter carrying the token. */
+    public static final String PARAMETER_NAME = "cursor";
+
+    private static final char SEPARATOR = ':';
+
+    private CursorMapper() {}
+
+    /**
+     * Keyset values to token.
+     *
+     * @param parts Keyset values of the last row of the page.
+     * @return Continuation token.
+     */
+    @NotNull
+    public static String toToken(final long... parts) {
+
+        final var sb = new StringBuilder(parts.length * 12);
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(parts[i]);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Token to keyset values.
+     *
+     * @param token Continuation token.
+     * @param expectedParts Expected amount of keyset values.
+     * @return Keyset values.
+     * @throws TkInvalidParameterException If token is malformed.
+     */
+    @NotNull
+    public static long[] fromToken(final String token, final int expectedParts) {
+
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.US_ASCII);
+
+            final String[] strings = decoded.split(String.valueOf(SEPARATOR), -1);
+            if (strings.length != expectedParts) {
+                throw new TkInvalidParameterException(PARAMETER_NAME);
+            }
+
+            final long[] parts = new long[expectedParts];
+            for (int i = 0; i < expectedParts; i++) {
+                parts[i] = Long.parseLong(strings[i]);
+            }
+            return parts;
+
+        } catch (IllegalArgumentException ex) { // NumberFormatException included
+            throw new TkInvalidParameterException(PARAMETER_NAME);
+        }
+    }
+
+    /**
+     * Timestamp to keyset value: microseconds, the precision of a database timestamp.
+     *
+     * @param instant Timestamp.
+     * @return Keyset value.
+     */
+    public static long toKeysetValue(@NotNull final Instant instant) {
+
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    /**
+     * Keyset value to timestamp.
+     *
+     * @param micros Keyset value.
+     * @return Timestamp.
+     */
+    @NotNull
+    public static Instant toInstant(final long micros) {
+
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
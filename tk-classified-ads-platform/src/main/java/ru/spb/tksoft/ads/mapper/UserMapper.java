@@ -6,6 +6,7 @@ import ru.spb.tksoft.ads.dto.request.UpdateUserRequestDto;
 import ru.spb.tksoft.ads.dto.response.UpdateUserResponseDto;
 import ru.spb.tksoft.ads.dto.response.UserResponseDto;
 import ru.spb.tksoft.ads.entity.UserEntity;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
 import ru.spb.tksoft.ads.service.ResourceService;
 
 /**
@@ -36,7 +37,10 @@ public final class UserMapper {
                 entity.getLastName(),
                 entity.getPhone(),
                 entity.getRole(),
-                resourceService.getAvatarImageUrl(entity.getId()));
+                resourceService.getAvatarImageUrl(entity.getId(), ImageRendition.CARD,
+                        entity.getAvatar() == null
+                                ? null
+                                : ResourceService.getImageVersion(entity.getAvatar().getName())));
     }
 
     /**
@@ -26,6 +26,9 @@ public interface AdExtendedResponseProjection {
      */
     Long getImageId();
 
+    /** Image file name, image version for URL. */
+    String getImageName();
+
     /** Author's first name. */
     String getAuthorFirstName();
 
@@ -23,4 +23,7 @@ public interface AdResponseProjection {
 
     /** Image. */
     Long getImageId();
+
+    /** Image file name, image version for URL. */
+    String getImageName();
 }
@@ -18,9 +18,6 @@ public interface CommentProjection {
     /** Author's first name. */
     String getAuthorFirstName();
 
-    /** Author's image ID. */
-    String getAuthorAvatarId();
-
     /** Created at timestamp. */
     Instant getCreatedAt();
 
@@ -2,6 +2,7 @@ package ru.spb.tksoft.ads.repository;
 
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -26,12 +27,35 @@ public interface AdRepository extends JpaRepository<AdEntity, Long> {
                 a.title AS title,
                 a.price AS price,
                 u.id AS userId,
-                i.id AS imageId
+                i.id AS imageId,
+                i.name AS imageName
             FROM AdEntity a
             JOIN a.user u
-            LEFT JOIN a.image i""")
+            LEFT JOIN ImageEntity i ON i.id = a.id""")
     List<AdResponseProjection> findManyMinimal();
 
+    /**
+     * Keyset page of ads: newest first, ID strictly less than given one.
+     * 
+     * @param beforeId Exclusive upper bound of ad ID (Long.MAX_VALUE for the first page).
+     * @param limit Max amount of rows.
+     * @return List of AdResponseProjection.
+     */
+    @Query("""
+            SELECT
+                a.id AS id,
+                a.title AS title,
+                a.price AS price,
+                u.id AS userId,
+                i.id AS imageId,
+                i.name AS imageName
+            FROM AdEntity a
+            JOIN a.user u
+            LEFT JOIN ImageEntity i ON i.id = a.id
+            WHERE a.id < :beforeId
+            ORDER BY a.id DESC""")
+    List<AdResponseProjection> findManyMinimalBefore(Long beforeId, Limit limit);
+
     /**
      * @return List of AdResponseProjection by user name.
      */
@@ -41,10 +65,11 @@ public interface AdRepository extends JpaRepository<AdEntity, Long> {
                 a.title AS title,
                 a.price AS price,
                 u.id AS userId,
-                i.id AS imageId
+                i.id AS imageId,
+                i.name AS imageName
             FROM AdEntity a
             JOIN a.user u
-            LEFT JOIN a.image i
+            LEFT JOIN ImageEntity i ON i.id = a.id
             WHERE u.name = :userName""")
     List<AdResponseProjection> findManyMinimalByName(String userName);
 
@@ -58,13 +83,14 @@ public interface AdRepository extends JpaRepository<AdEntity, Long> {
                 a.price AS price,
                 a.description AS description,
                 i.id AS imageId,
+                i.name AS imageName,
                 u.firstName AS authorFirstName,
                 u.lastName AS authorLastName,
                 u.name AS email,
                 u.phone AS phone
             FROM AdEntity a
             JOIN a.user u
-            JOIN a.image i
+            JOIN ImageEntity i ON i.id = a.id
             WHERE a.id = :adId""")
     Optional<AdExtendedResponseProjection> findOneExtended(Long adId);
 
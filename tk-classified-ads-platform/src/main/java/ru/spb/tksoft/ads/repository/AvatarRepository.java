@@ -1,7 +1,10 @@
 package ru.spb.tksoft.ads.repository;
 
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
 import ru.spb.tksoft.ads.entity.AvatarEntity;
 
 /**
@@ -12,4 +15,30 @@ import ru.spb.tksoft.ads.entity.AvatarEntity;
 @Repository
 public interface AvatarRepository extends JpaRepository<AvatarEntity, Long> {
 
+    /**
+     * @return Optional of stored file name and media type by user ID.
+     */
+    @Query("""
+        SELECT new ru.spb.tksoft.ads.dto.response.ImageFileDto(a.name, a.mediatype)
+        FROM AvatarEntity a
+        WHERE a.user.id = :userId""")
+    Optional<ImageFileDto> findOneFileByUserId(Long userId);
+
+    /**
+     * @return Count of rows referencing stored file with given name.
+     */
+    long countByName(String name);
+
+    /**
+     * Lock given stored file name until the end of current transaction.
+     * 
+     * Serializes adding and releasing references to the same content-addressed file.
+     * 
+     * @return Always 1.
+     */
+    @Query(value = """
+        SELECT count(*)
+        FROM (SELECT pg_advisory_xact_lock(2, hashtext(:name))) AS l""",
+            nativeQuery = true)
+    long lockName(String name);
 }
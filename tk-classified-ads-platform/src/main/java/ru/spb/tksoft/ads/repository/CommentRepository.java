@@ -1,11 +1,18 @@
 package ru.spb.tksoft.ads.repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 import ru.spb.tksoft.ads.entity.CommentEntity;
+import ru.spb.tksoft.ads.projection.CommentProjection;
 
 /**
  * Repository of CommentEntity.
@@ -22,10 +29,39 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
     Optional<CommentEntity> findOneByAdId(Long adId);
 
     /**
-     * @return List of CommentEntity by ad ID.
+     * @return List of CommentProjection by ad ID, newest first.
      */
-    @Query("SELECT c FROM CommentEntity c JOIN FETCH c.user u WHERE c.ad.id = :adId")
-    List<CommentEntity> findManyByAdId(Long adId);
+    @Query("""
+            SELECT
+                c.id AS id,
+                u.id AS authorId,
+                u.firstName AS authorFirstName,
+                c.createdAt AS createdAt,
+                c.text AS text
+            FROM CommentEntity c
+            JOIN c.user u
+            WHERE c.ad.id = :adId
+            ORDER BY c.createdAt DESC, c.id DESC""")
+    List<CommentProjection> findManyMinimalByAdId(Long adId, Limit limit);
+
+    /**
+     * @return List of CommentProjection by ad ID older than given keyset, newest first.
+     */
+    @Query("""
+            SELECT
+                c.id AS id,
+                u.id AS authorId,
+                u.firstName AS authorFirstName,
+                c.createdAt AS createdAt,
+                c.text AS text
+            FROM CommentEntity c
+            JOIN c.user u
+            WHERE c.ad.id = :adId
+                AND (c.createdAt < :beforeCreatedAt
+                    OR (c.createdAt = :beforeCreatedAt AND c.id < :beforeId))
+            ORDER BY c.createdAt DESC, c.id DESC""")
+    List<CommentProjection> findManyMinimalByAdIdBefore(Long adId, Instant beforeCreatedAt,
+            Long beforeId, Limit limit);
 
     /**
      * @return List of CommentEntity. Test method.
@@ -33,6 +69,27 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
     @Query("SELECT c FROM CommentEntity c JOIN FETCH c.user")
     List<CommentEntity> findMany();
 
+    /**
+     * Rows are fetched from a server-side cursor in batches, the stream must be consumed inside
+     * a transaction and closed.
+     * 
+     * @return Stream of CommentProjection, all comments ordered by ID.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("""
+            SELECT
+                c.id AS id,
+                u.id AS authorId,
+                u.firstName AS authorFirstName,
+                c.createdAt AS createdAt,
+                c.text AS text
+            FROM CommentEntity c
+            JOIN c.user u
+            ORDER BY c.id""")
+    Stream<CommentProjection> streamAllMinimal();
+
     /**
      * @return Optional CommentEntity by user name and ad ID.
      */
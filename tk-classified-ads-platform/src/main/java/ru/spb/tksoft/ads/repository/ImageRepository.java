@@ -1,7 +1,10 @@
 package ru.spb.tksoft.ads.repository;
 
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
 import ru.spb.tksoft.ads.entity.ImageEntity;
 
 /**
@@ -12,4 +15,30 @@ import ru.spb.tksoft.ads.entity.ImageEntity;
 @Repository
 public interface ImageRepository extends JpaRepository<ImageEntity, Long> {
 
+    /**
+     * @return Optional of stored file name and media type by ad ID.
+     */
+    @Query("""
+        SELECT new ru.spb.tksoft.ads.dto.response.ImageFileDto(i.name, i.mediatype)
+        FROM ImageEntity i
+        WHERE i.id = :adId""")
+    Optional<ImageFileDto> findOneFile(Long adId);
+
+    /**
+     * @return Count of rows referencing stored file with given name.
+     */
+    long countByName(String name);
+
+    /**
+     * Lock given stored file name until the end of current transaction.
+     * 
+     * Serializes adding and releasing references to the same content-addressed file.
+     * 
+     * @return Always 1.
+     */
+    @Query(value = """
+        SELECT count(*)
+        FROM (SELECT pg_advisory_xact_lock(1, hashtext(:name))) AS l""",
+            nativeQuery = true)
+    long lockName(String name);
 }
@@ -0,0 +1,127 @@
+package ru.spb.tksoft.ads.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import ru.spb.tksoft.ads.dto.response.AdImportJobResponseDto;
+import ru.spb.tksoft.ads.enumeration.AdImportStatus;
+
+/**
+ * Progress of one ads import job. Updated by the job and by its image tasks concurrently.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class AdImportJob {
+
+    /** Errors kept for the status response, the rest are only counted. */
+    public static final int ERRORS_MAX = 100;
+
+    /** Job ID. */
+    @Getter
+    private final UUID id;
+
+    /** Name of the dealer who started the job. */
+    @Getter
+    private final String ownerName;
+
+    private volatile AdImportStatus status = AdImportStatus.QUEUED;
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger imagesStored = new AtomicInteger();
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param ownerName Name of the dealer who started the job.
+     */
+    public AdImportJob(final String ownerName) {
+
+        this.id = UUID.randomUUID();
+        this.ownerName = ownerName;
+    }
+
+    /**
+     * @param status New status.
+     */
+    public void setStatus(final AdImportStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * @return True if job has completed or failed.
+     */
+    public boolean isFinished() {
+        return status == AdImportStatus.COMPLETED || status == AdImportStatus.FAILED;
+    }
+
+    /**
+     * @param total Ads in the manifest.
+     */
+    public void setTotal(final int total) {
+        this.total.set(total);
+    }
+
+    /** One more image is stored. */
+    public void imageStored() {
+        imagesStored.incrementAndGet();
+    }
+
+    /**
+     * @param imported Ads inserted.
+     */
+    public void setImported(final int imported) {
+        this.imported.set(imported);
+    }
+
+    /**
+     * Ad or image is rejected.
+     *
+     * @param source Manifest position or archive entry name.
+     * @param reason Reason.
+     */
+    public void reject(final String source, final String reason) {
+
+        rejected.incrementAndGet();
+        addError(source, reason);
+    }
+
+    /**
+     * Job has failed as a whole.
+     *
+     * @param reason Reason.
+     */
+    public void fail(final String reason) {
+
+        addError("archive", reason);
+        status = AdImportStatus.FAILED;
+    }
+
+    private void addError(final String source, final String reason) {
+
+        synchronized (errors) {
+            if (errors.size() < ERRORS_MAX) {
+                errors.add(source + ": " + reason);
+            }
+        }
+    }
+
+    /**
+     * @return Response DTO: snapshot of progress.
+     */
+    public AdImportJobResponseDto toDto() {
+
+        final List<String> errorsSnapshot;
+        synchronized (errors) {
+            errorsSnapshot = List.copyOf(errors);
+        }
+
+        return new AdImportJobResponseDto(id.toString(), status, total.get(),
+                imagesStored.get(), imported.get(), rejected.get(), errorsSnapshot);
+    }
+}
@@ -0,0 +1,707 @@
+package ru.spb.tksoft.ads.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.config.BulkValuesConfig;
+import ru.spb.tksoft.ads.config.MetricsConfig;
+import ru.spb.tksoft.ads.dto.request.AdImportItemDto;
+import ru.spb.tksoft.ads.dto.response.AdImportJobResponseDto;
+import ru.spb.tksoft.ads.enumeration.AdImportStatus;
+import ru.spb.tksoft.ads.enumeration.CacheEvictionReason;
+import ru.spb.tksoft.ads.exception.TkAdBaseException;
+import ru.spb.tksoft.ads.exception.TkImportJobNotFoundException;
+import ru.spb.tksoft.ads.exception.TkInvalidParameterException;
+import ru.spb.tksoft.ads.exception.TkSavingMediaException;
+import ru.spb.tksoft.ads.exception.TkServiceBusyException;
+import ru.spb.tksoft.ads.exception.TkSizeException;
+import ru.spb.tksoft.ads.exception.TkTooManyRequestsException;
+import ru.spb.tksoft.ads.exception.TkUserNotFoundException;
+import ru.spb.tksoft.ads.io.ByteArrayMultipartFile;
+import ru.spb.tksoft.ads.repository.UserRepository;
+import ru.spb.tksoft.utils.log.LogEx;
+
+import static ru.spb.tksoft.ads.entity.AbstractBaseEntity.ID_ALLOCATION_SIZE;
+
+/**
+ * Import of many ads from a zip archive: manifest "ads.json" and image files it refers to.
+ *
+ * Runs as a background job. Archive is read as a stream; images are validated and stored
+ * concurrently on virtual threads. Rows go to a temporary table with COPY and are moved into
+ * "ad" and "image" with INSERT ... SELECT, one transaction per bulk.max-ads rows. Caches of the
+ * owner are evicted once, at the end. Jobs run and are kept in memory of the node that started
+ * them, and their count is limited per node and per user. Job status is also published to Redis
+ * at every step, so any node can answer a status request.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class AdImportService {
+
+    /** Name of manifest entry in the archive. */
+    public static final String MANIFEST_NAME = "ads.json";
+
+    /** Media type of import request body. */
+    public static final String ARCHIVE_MEDIA_TYPE = "application/zip";
+
+    /** Manifest size allowed per ad, bytes. */
+    public static final int MANIFEST_BYTES_PER_AD = 1024;
+
+    /** Redis key prefix of published job status. */
+    public static final String JOB_KEY_PREFIX = "tk-ads:import-job:";
+
+    /** Published status of an unfinished job outlives a node that went down by this much. */
+    public static final Duration UNFINISHED_JOB_TTL = Duration.ofHours(24);
+
+    private static final String ARCHIVE_FILE_PREFIX = "ads-import-";
+    private static final String ARCHIVE_FILE_SUFFIX = ".zip";
+    private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
+
+    private static final TypeReference<List<AdImportItemDto>> MANIFEST_TYPE =
+            new TypeReference<>() {};
+
+    private static final String ALLOCATE_AD_IDS_SQL = """
+            SELECT nextval('"ad_id_seq"') FROM generate_series(1, ?)""";
+
+    private static final String CREATE_STAGING_TABLE_SQL = """
+            CREATE TEMPORARY TABLE "ad_import" (
+                "id" BIGINT NOT NULL,
+                "title" VARCHAR(32) NOT NULL,
+                "price" DECIMAL NOT NULL,
+                "description" VARCHAR(64) NOT NULL,
+                "image_name" VARCHAR(256) NOT NULL,
+                "image_size" BIGINT NOT NULL,
+                "image_mediatype" VARCHAR(128) NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_STAGING_SQL = """
+            COPY "ad_import" FROM STDIN (FORMAT csv)""";
+
+    private static final String INSERT_ADS_SQL = """
+            INSERT INTO "ad" ("id", "user_id", "title", "price", "description")
+            SELECT "id", ?, "title", "price", "description"
+            FROM "ad_import"
+            """;
+
+    private static final String INSERT_IMAGES_SQL = """
+            INSERT INTO "image" ("ad_id", "name", "size", "mediatype")
+            SELECT "id", "image_name", "image_size", "image_mediatype"
+            FROM "ad_import"
+            """;
+
+    private final Logger log = LoggerFactory.getLogger(AdImportService.class);
+
+    private final AdService adService;
+    private final AdServiceCached adsServiceCached;
+    private final ResourceService resourceService;
+    private final ImageReferenceService imageReferenceService;
+    private final BulkValuesConfig bulkValuesConfig;
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    private final ExecutorService jobExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Object jobStartLock = new Object();
+
+    private Cache<UUID, AdImportJob> jobs;
+
+    /** Stored image of the archive. */
+    private record StoredImage(String name, int size, String mediatype) {
+    }
+
+    /** Valid ad of the manifest with its stored image. */
+    private record ImportRow(AdImportItemDto item, StoredImage image) {
+    }
+
+    /** Job status as published to Redis. */
+    private record PublishedJob(String ownerName, AdImportJobResponseDto status) {
+    }
+
+    @PostConstruct
+    void init() {
+
+        final long ttlNanos =
+                Duration.ofMinutes(bulkValuesConfig.getImportJobTtlMinutes()).toNanos();
+
+        // Unfinished jobs never expire: TTL starts when the finished job is put again.
+        jobs = Caffeine.newBuilder()
+                .expireAfter(new Expiry<UUID, AdImportJob>() {
+                    @Override
+                    public long expireAfterCreate(UUID id, AdImportJob job, long currentTime) {
+                        return job.isFinished() ? ttlNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID id, AdImportJob job, long currentTime,
+                            long currentDuration) {
+                        return job.isFinished() ? ttlNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID id, AdImportJob job, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Accept import archive and start import job. Dealers only.
+     *
+     * Archive is saved into a temporary file first: the job outlives the request.
+     *
+     * @param userDetails UserDetails implementation.
+     * @param declaredSize Content length of the request, null if unknown.
+     * @param archive Zip archive: raw request body.
+     * @return Response DTO of the queued job.
+     * @throws TkSizeException If archive is empty or larger than bulk.import-max-archive-bytes.
+     * @throws TkTooManyRequestsException If the user already runs as many jobs as allowed.
+     * @throws TkServiceBusyException If the node already runs as many jobs as allowed.
+     */
+    public AdImportJobResponseDto startImport(final UserDetails userDetails,
+            final Long declaredSize, final InputStream archive) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        adService.checkDealer(userDetails);
+        final long sizeMax = bulkValuesConfig.getImportMaxArchiveBytes();
+        if (archive == null
+                || declaredSize != null && (declaredSize <= 0 || declaredSize > sizeMax)) {
+            throw new TkSizeException("archive");
+        }
+
+        // Job takes its slot before the archive is saved, so limits hold for concurrent requests.
+        final AdImportJob job = new AdImportJob(userDetails.getUsername());
+        synchronized (jobStartLock) {
+            checkJobLimits(job.getOwnerName());
+            jobs.put(job.getId(), job);
+        }
+
+        Path archivePath = null;
+        try {
+            archivePath = Files.createTempFile(ARCHIVE_FILE_PREFIX, ARCHIVE_FILE_SUFFIX);
+            if (saveArchive(archive, archivePath, sizeMax) == 0) {
+                throw new TkSizeException("archive");
+            }
+
+            // Published before the job runs: a later step is never overwritten by this one.
+            publish(job);
+            final Path jobArchivePath = archivePath;
+            jobExecutor.submit(() -> runImport(job, jobArchivePath));
+        } catch (IOException ex) {
+            abandonJob(job, archivePath);
+            throw new TkSavingMediaException("archive");
+        } catch (RuntimeException ex) {
+            abandonJob(job, archivePath);
+            throw ex;
+        }
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
+        return job.toDto();
+    }
+
+    /**
+     * Copy archive into the file, counting bytes: content length may be absent or wrong.
+     *
+     * @return Archive size.
+     * @throws TkSizeException If archive is larger than the maximum.
+     */
+    private static long saveArchive(final InputStream archive, final Path archivePath,
+            final long sizeMax) throws IOException {
+
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(archivePath)) {
+            final byte[] buffer = new byte[ARCHIVE_BUFFER_SIZE];
+            int read;
+            while ((read = archive.read(buffer)) != -1) {
+                size += read;
+                if (size > sizeMax) {
+                    throw new TkSizeException("archive");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Check that one more job of the user may start. Unfinished jobs are counted.
+     *
+     * @param ownerName Name of the dealer.
+     */
+    private void checkJobLimits(final String ownerName) {
+
+        int running = 0;
+        int runningOfOwner = 0;
+        for (AdImportJob job : jobs.asMap().values()) {
+            if (!job.isFinished()) {
+                running++;
+                if (job.getOwnerName().equals(ownerName)) {
+                    runningOfOwner++;
+                }
+            }
+        }
+
+        if (runningOfOwner >= bulkValuesConfig.getImportMaxJobsPerUser()) {
+            throw new TkTooManyRequestsException("import jobs");
+        }
+        if (running >= bulkValuesConfig.getImportMaxJobs()) {
+            throw new TkServiceBusyException("import jobs");
+        }
+    }
+
+    /** Job has not been started: its slot, status and archive are released. */
+    private void abandonJob(final AdImportJob job, final Path archivePath) {
+
+        jobs.invalidate(job.getId());
+        try {
+            redisTemplate.delete(JOB_KEY_PREFIX + job.getId());
+        } catch (Exception ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
+        }
+        deleteArchive(archivePath);
+    }
+
+    /**
+     * Publish job status for other nodes. Failure is logged only: the job goes on, and this node
+     * still answers from memory.
+     */
+    private void publish(final AdImportJob job) {
+
+        final Duration ttl = job.isFinished()
+                ? Duration.ofMinutes(bulkValuesConfig.getImportJobTtlMinutes())
+                : UNFINISHED_JOB_TTL;
+        try {
+            redisTemplate.opsForValue().set(JOB_KEY_PREFIX + job.getId(),
+                    objectMapper.writeValueAsString(
+                            new PublishedJob(job.getOwnerName(), job.toDto())),
+                    ttl);
+        } catch (Exception ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
+        }
+    }
+
+    /**
+     * Job status published by any node.
+     *
+     * @return Published status, null if there is none.
+     */
+    private PublishedJob findPublished(final UUID id) {
+
+        final String value = redisTemplate.opsForValue().get(JOB_KEY_PREFIX + id);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, PublishedJob.class);
+        } catch (IOException ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Get status and progress of import job started by the user.
+     *
+     * The node running the job answers with live progress, other nodes with the status it has
+     * published last.
+     *
+     * @param userDetails UserDetails implementation.
+     * @param jobId Job ID.
+     * @return Response DTO.
+     * @throws TkImportJobNotFoundException If there is no such job of the user.
+     */
+    public AdImportJobResponseDto getImportJob(final UserDetails userDetails,
+            final String jobId) {
+
+        final UUID id;
+        try {
+            id = UUID.fromString(jobId);
+        } catch (IllegalArgumentException ex) {
+            throw new TkImportJobNotFoundException(jobId);
+        }
+
+        final AdImportJob job = jobs.getIfPresent(id);
+        final PublishedJob published = job != null
+                ? new PublishedJob(job.getOwnerName(), job.toDto())
+                : findPublished(id);
+
+        if (published == null || userDetails == null
+                || !published.ownerName().equals(userDetails.getUsername())) {
+            throw new TkImportJobNotFoundException(jobId);
+        }
+        return published.status();
+    }
+
+    private void runImport(final AdImportJob job, final Path archivePath) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        job.setStatus(AdImportStatus.RUNNING);
+        publish(job);
+        final Map<String, StoredImage> images = new ConcurrentHashMap<>();
+        int imported = 0;
+        try {
+            final List<ImportRow> rows = validateItems(job,
+                    readArchive(job, archivePath, images), images);
+            publish(job);
+
+            final int chunkSize = bulkValuesConfig.getMaxAds();
+            for (int from = 0; from < rows.size(); from += chunkSize) {
+                imported += insertAds(job.getOwnerName(),
+                        rows.subList(from, Math.min(from + chunkSize, rows.size())));
+                job.setImported(imported);
+                publish(job);
+            }
+            job.setStatus(AdImportStatus.COMPLETED);
+        } catch (TkAdBaseException ex) {
+            job.fail(ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            job.fail("interrupted");
+        } catch (Exception ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
+            job.fail("internal error");
+        } finally {
+            if (imported > 0) {
+                adsServiceCached.evictOwnerAds(job.getOwnerName(),
+                        CacheEvictionReason.AD_CREATED);
+            }
+
+            // Files no inserted row refers to are deleted.
+            images.values().stream()
+                    .map(StoredImage::name)
+                    .distinct()
+                    .forEach(this::releaseImage);
+            deleteArchive(archivePath);
+
+            // Finished job is kept for TTL from now on.
+            jobs.put(job.getId(), job);
+            publish(job);
+        }
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
+    }
+
+    /**
+     * Read archive entries one by one: manifest is parsed, images are stored concurrently.
+     *
+     * Only bulk.import-parallelism images are held in memory at once. If manifest comes first,
+     * entries it does not refer to are skipped.
+     *
+     * @return Manifest items.
+     */
+    private List<AdImportItemDto> readArchive(final AdImportJob job, final Path archivePath,
+            final Map<String, StoredImage> images) throws IOException, InterruptedException {
+
+        final long imageSizeMax = resourceService.getAdImageMaxFileSize();
+        final Semaphore permits = new Semaphore(bulkValuesConfig.getImportParallelism());
+
+        List<AdImportItemDto> items = null;
+        Set<String> referenced = null;
+
+        // Executor is closed first: all image tasks are finished before the method returns.
+        try (ZipInputStream zip = new ZipInputStream(
+                new BufferedInputStream(Files.newInputStream(archivePath)));
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) {
+                    continue;
+                }
+
+                final String entryName = entry.getName();
+                if (MANIFEST_NAME.equals(entryName)) {
+                    items = readManifest(zip);
+                    job.setTotal(items.size());
+                    referenced = new HashSet<>();
+                    for (AdImportItemDto item : items) {
+                        if (item != null && item.getImage() != null) {
+                            referenced.add(item.getImage());
+                        }
+                    }
+                    continue;
+                }
+                if (referenced != null && !referenced.contains(entryName)) {
+                    continue;
+                }
+
+                final byte[] content = zip.readNBytes((int) imageSizeMax + 1);
+                if (content.length > imageSizeMax) {
+                    job.reject(entryName, new TkSizeException("ad image").getMessage());
+                    continue;
+                }
+
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        images.put(entryName, storeImage(entryName, content));
+                        job.imageStored();
+                    } catch (TkAdBaseException ex) {
+                        job.reject(entryName, ex.getMessage());
+                    } catch (RuntimeException ex) {
+                        LogEx.error(log, LogEx.THIS_METHOD, ex);
+                        job.reject(entryName, "internal error");
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        if (items == null) {
+            throw new TkInvalidParameterException(MANIFEST_NAME);
+        }
+        return items;
+    }
+
+    private List<AdImportItemDto> readManifest(final ZipInputStream zip) throws IOException {
+
+        final int sizeMax = bulkValuesConfig.getImportMaxAds() * MANIFEST_BYTES_PER_AD;
+        final byte[] content = zip.readNBytes(sizeMax + 1);
+        if (content.length > sizeMax) {
+            throw new TkSizeException(MANIFEST_NAME);
+        }
+
+        final List<AdImportItemDto> items;
+        try {
+            items = objectMapper.readValue(content, MANIFEST_TYPE);
+        } catch (IOException ex) {
+            throw new TkInvalidParameterException(MANIFEST_NAME);
+        }
+
+        if (items == null || items.isEmpty() || items.size() > bulkValuesConfig.getImportMaxAds()) {
+            throw new TkSizeException("ads");
+        }
+        return items;
+    }
+
+    private StoredImage storeImage(final String entryName, final byte[] content) {
+
+        // Archive entries carry no media type: it is taken from content, then checked as usual.
+        final String mediatype = ResourceService.detectImageMediaType(content);
+        final String name = resourceService.saveAdImageFile(
+                new ByteArrayMultipartFile(entryName, mediatype, content));
+        return new StoredImage(name, content.length, mediatype);
+    }
+
+    private List<ImportRow> validateItems(final AdImportJob job,
+            final List<AdImportItemDto> items, final Map<String, StoredImage> images) {
+
+        final List<ImportRow> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+
+            final String source = MANIFEST_NAME + "[" + i + "]";
+            final AdImportItemDto item = items.get(i);
+            if (item == null) {
+                job.reject(source, "empty");
+                continue;
+            }
+
+            final Set<ConstraintViolation<AdImportItemDto>> violations =
+                    validator.validate(item);
+            if (!violations.isEmpty()) {
+                final ConstraintViolation<AdImportItemDto> violation =
+                        violations.iterator().next();
+                job.reject(source, violation.getPropertyPath() + " " + violation.getMessage());
+                continue;
+            }
+
+            final StoredImage image = images.get(item.getImage());
+            if (image == null) {
+                job.reject(source, "image not stored: " + item.getImage());
+                continue;
+            }
+
+            rows.add(new ImportRow(item, image));
+        }
+        return rows;
+    }
+
+    /**
+     * Insert ads and their images in one transaction.
+     *
+     * @return Count of inserted ads.
+     */
+    private int insertAds(final String ownerName, final List<ImportRow> rows) {
+
+        final Integer inserted = new TransactionTemplate(transactionManager).execute(status -> {
+
+            final Long userId = userRepository.findOneByNameLazy(ownerName)
+                    .orElseThrow(() -> new TkUserNotFoundException(ownerName, false))
+                    .getId();
+
+            rows.stream()
+                    .map(row -> row.image().name())
+                    .distinct()
+                    .forEach(imageReferenceService::acquireAdImageFile);
+
+            return entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> copyAds(connection, userId, rows));
+        });
+
+        return inserted == null ? 0 : inserted;
+    }
+
+    private int copyAds(final Connection connection, final long userId,
+            final List<ImportRow> rows) throws SQLException {
+
+        final long[] ids = allocateAdIds(connection, rows.size());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING_TABLE_SQL);
+        }
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING_SQL),
+                StandardCharsets.UTF_8))) {
+            for (int i = 0; i < rows.size(); i++) {
+                writeCsvRow(writer, ids[i], rows.get(i));
+            }
+        } catch (IOException ex) {
+            throw new SQLException(ex);
+        }
+
+        final int inserted;
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_ADS_SQL)) {
+            statement.setLong(1, userId);
+            inserted = statement.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(INSERT_IMAGES_SQL);
+        }
+        return inserted;
+    }
+
+    /**
+     * Take IDs the same way the pooled generator of AdEntity does: one "nextval" is the upper
+     * end of a block of ID_ALLOCATION_SIZE IDs.
+     */
+    private static long[] allocateAdIds(final Connection connection, final int count)
+            throws SQLException {
+
+        final long[] ids = new long[count];
+        try (PreparedStatement statement = connection.prepareStatement(ALLOCATE_AD_IDS_SQL)) {
+            statement.setInt(1, (count + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE);
+            try (ResultSet blocks = statement.executeQuery()) {
+                int i = 0;
+                while (blocks.next()) {
+                    final long hi = blocks.getLong(1);
+                    for (long id = hi - ID_ALLOCATION_SIZE + 1; id <= hi && i < count; id++) {
+                        ids[i++] = id;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void writeCsvRow(final Writer writer, final long id, final ImportRow row)
+            throws IOException {
+
+        final AdImportItemDto item = row.item();
+        final StoredImage image = row.image();
+        writer.write(String.valueOf(id));
+        writer.write(',');
+        writer.write(toCsvText(item.getTitle()));
+        writer.write(',');
+        writer.write(String.valueOf(item.getPrice()));
+        writer.write(',');
+        writer.write(toCsvText(item.getDescription()));
+        writer.write(',');
+        writer.write(toCsvText(image.name()));
+        writer.write(',');
+        writer.write(String.valueOf(image.size()));
+        writer.write(',');
+        writer.write(toCsvText(image.mediatype()));
+        writer.write('\n');
+    }
+
+    private static String toCsvText(final String value) {
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void releaseImage(final String fileName) {
+
+        try {
+            imageReferenceService.releaseAdImageFile(fileName);
+        } catch (Exception ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
+        }
+    }
+
+    private void deleteArchive(final Path archivePath) {
+
+        if (archivePath != null) {
+            try {
+                Files.deleteIfExists(archivePath);
+            } catch (Exception ex) {
+                LogEx.error(log, LogEx.THIS_METHOD, ex);
+            }
+        }
+    }
+}
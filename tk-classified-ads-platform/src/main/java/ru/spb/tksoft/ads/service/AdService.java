@@ -1,34 +1,42 @@
 package ru.spb.tksoft.ads.service;
 
 import java.math.BigDecimal;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.PathResource;
 import org.springframework.core.io.Resource;
-import org.springframework.http.MediaType;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.config.BulkValuesConfig;
+import ru.spb.tksoft.ads.config.MetricsConfig;
+import ru.spb.tksoft.ads.config.PagingValuesConfig;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateAdRequestDto;
 import ru.spb.tksoft.ads.dto.response.AdResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdsPageResponseDto;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
 import ru.spb.tksoft.ads.entity.AdEntity;
 import ru.spb.tksoft.ads.entity.ImageEntity;
 import ru.spb.tksoft.ads.entity.UserEntity;
+import ru.spb.tksoft.ads.enumeration.CacheEvictionReason;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
+import ru.spb.tksoft.ads.enumeration.UserRole;
 import ru.spb.tksoft.ads.exception.TkAdNotFoundException;
-import ru.spb.tksoft.ads.exception.TkMediaNotFoundException;
+import ru.spb.tksoft.ads.exception.TkRoleRequiredException;
+import ru.spb.tksoft.ads.exception.TkSizeException;
 import ru.spb.tksoft.ads.exception.TkUserNotFoundException;
 import ru.spb.tksoft.ads.mapper.AdMapper;
+import ru.spb.tksoft.ads.mapper.CursorMapper;
 import ru.spb.tksoft.ads.projection.AdResponseProjection;
 import ru.spb.tksoft.ads.repository.AdRepository;
 import ru.spb.tksoft.ads.repository.ImageRepository;
@@ -42,16 +50,20 @@ import ru.spb.tksoft.utils.log.LogEx;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AdService {
 
     private final Logger log = LoggerFactory.getLogger(AdService.class);
 
     private final AdServiceCached adsServiceCached;
     private final ResourceService resourceService;
+    private final ImageReferenceService imageReferenceService;
+    private final PagingValuesConfig pagingValuesConfig;
+    private final BulkValuesConfig bulkValuesConfig;
 
     private final AdRepository adRepository;
-    private final UserRepository userRepository;
     private final ImageRepository imageRepository;
+    private final UserRepository userRepository;
 
     /**
      * Save ad image file.
@@ -69,14 +81,10 @@ public class AdService {
      * 
      * @param userName User name.
      * @param requestDto Request DTO.
-     * @param fileName Saved file name.
-     * @param fileSize Saved file size.
-     * @param contentType Saved file type.
      * @return Newly created ad entity.
      */
     public AdEntity createAdEntity(final String userName,
-            final CreateOrUpdateAdRequestDto requestDto,
-            final String fileName, final int fileSize, final String contentType) {
+            final CreateOrUpdateAdRequestDto requestDto) {
 
         final UserEntity user = userRepository.findOneByNameLazy(userName)
                 .orElseThrow(() -> new TkUserNotFoundException(userName, false));
@@ -84,21 +92,23 @@ public class AdService {
         final AdEntity newAd = AdMapper.toEntity(requestDto);
         newAd.setUser(user);
 
-        var imageEntity = new ImageEntity(fileName, fileSize, contentType);
-        newAd.setImage(imageEntity);
-
         return newAd;
     }
 
     /**
-     * Save new ad entity inside transaction.
+     * Save new ad entity and its image inside transaction.
      * 
      * @param adEntity Ad entity.
      * @param savedFileName Saved file name.
+     * @param fileSize Saved file size.
+     * @param contentType Saved file type.
      * @return Saved ad entity.
      */
     @Transactional
-    public AdEntity saveAdEntity(final AdEntity adEntity, final String savedFileName) {
+    public AdEntity saveAdEntity(final AdEntity adEntity, final String savedFileName,
+            final int fileSize, final String contentType) {
+
+        final String ownerName = adEntity.getUser().getName();
 
         TransactionSynchronizationManager.registerSynchronization(
                 new TransactionSynchronization() {
@@ -106,54 +116,145 @@ public class AdService {
                     public void afterCompletion(int status) {
                         if (status == STATUS_ROLLED_BACK) {
                             if (savedFileName != null && !savedFileName.isBlank()) {
-                                resourceService.deleteAdImageFile(savedFileName);
+                                imageReferenceService.releaseAdImageFile(savedFileName);
                             }
                         } else if (status == STATUS_COMMITTED) {
-                            adsServiceCached.clearCaches();
+                            adsServiceCached.evictAd(adEntity.getId(), ownerName,
+                                    CacheEvictionReason.AD_CREATED);
                         }
                     }
                 });
 
-        return adRepository.save(adEntity);
+        imageReferenceService.acquireAdImageFile(savedFileName);
+
+        final AdEntity savedAd = adRepository.save(adEntity);
+        imageRepository.save(new ImageEntity(savedAd, savedFileName, fileSize, contentType));
+        return savedAd;
     }
 
-    /** AdEntity to DTO. */
-    public AdResponseDto getCreatedAd(final AdEntity entity) {
+    /**
+     * Check that user is a dealer.
+     * 
+     * @param userDetails UserDetails implementation.
+     * @throws TkRoleRequiredException If user is anonymous or not a dealer.
+     */
+    public void checkDealer(final UserDetails userDetails) {
 
-        return AdMapper.toDto(resourceService, entity);
+        if (userDetails == null) {
+            throw new TkRoleRequiredException(UserRole.DEALER.name());
+        }
+
+        final String dealerAuthority = "ROLE_" + UserRole.DEALER.name();
+        if (userDetails.getAuthorities().stream()
+                .noneMatch(authority -> dealerAuthority.equals(authority.getAuthority()))) {
+            throw new TkRoleRequiredException(UserRole.DEALER.name());
+        }
+    }
+
+    /**
+     * Check that user may create ads in bulk.
+     * 
+     * @param userDetails UserDetails implementation.
+     * @param adsCount Amount of ads in the request.
+     * @throws TkRoleRequiredException If user is not a dealer.
+     * @throws TkSizeException If there are no ads or too many of them.
+     */
+    public void checkBulkAllowed(final UserDetails userDetails, final int adsCount) {
+
+        checkDealer(userDetails);
+
+        if (adsCount <= 0 || adsCount > bulkValuesConfig.getMaxAds()) {
+            throw new TkSizeException("ads");
+        }
+    }
+
+    /**
+     * Save new ads of one owner sharing one image, inside one transaction.
+     * 
+     * IDs come from pooled sequences, so ads and images are inserted in JDBC batches at flush.
+     * 
+     * @param userName Owner name.
+     * @param requestDtos Request DTOs.
+     * @param savedFileName Saved file name.
+     * @param fileSize Saved file size.
+     * @param contentType Saved file type.
+     * @return Response DTO.
+     */
+    @Transactional
+    public AdsArrayResponseDto saveAdsBulk(final String userName,
+            final List<CreateOrUpdateAdRequestDto> requestDtos,
+            final String savedFileName, final int fileSize, final String contentType) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        final UserEntity user = userRepository.findOneByNameLazy(userName)
+                .orElseThrow(() -> new TkUserNotFoundException(userName, false));
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_ROLLED_BACK) {
+                            imageReferenceService.releaseAdImageFile(savedFileName);
+                        } else if (status == STATUS_COMMITTED) {
+                            adsServiceCached.evictOwnerAds(userName,
+                                    CacheEvictionReason.AD_CREATED);
+                        }
+                    }
+                });
+
+        imageReferenceService.acquireAdImageFile(savedFileName);
+
+        final List<AdEntity> ads = requestDtos.stream()
+                .map(requestDto -> {
+                    final AdEntity ad = AdMapper.toEntity(requestDto);
+                    ad.setUser(user);
+                    return ad;
+                })
+                .toList();
+        adRepository.saveAll(ads);
+        imageRepository.saveAll(ads.stream()
+                .map(ad -> new ImageEntity(ad, savedFileName, fileSize, contentType))
+                .toList());
+
+        final Set<AdResponseDto> responseSet = ads.stream()
+                .map(ad -> AdMapper.toDto(resourceService, ad, savedFileName))
+                .collect(Collectors.toSet());
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
+        return AdMapper.toAdsDto(responseSet.size(), responseSet);
+    }
+
+    /**
+     * AdEntity to DTO.
+     * 
+     * @param entity Saved ad entity.
+     * @param savedFileName Saved file name.
+     * @return Response DTO.
+     */
+    public AdResponseDto getCreatedAd(final AdEntity entity, final String savedFileName) {
+
+        return AdMapper.toDto(resourceService, entity, savedFileName);
     }
 
     /**
      * Get ad image by id.
      * 
      * @param adId Ad ID.
+     * @param rendition Image rendition, null for original.
+     * @param version Image version from URL, null if absent.
      * @return Image resource.
      */
-    public ResponseEntity<Resource> getAdImage(final Long adId) {
-
-        ImageEntity image = imageRepository.findById(adId)
-                .orElseThrow(() -> new TkMediaNotFoundException(String.valueOf(adId)));
+    public ResponseEntity<Resource> getAdImage(final Long adId,
+            final ImageRendition rendition, final String version) {
 
-        String filename = image.getName();
-
-        if (filename == null || filename.isBlank()) {
-            LogEx.error(log, LogEx.getThisMethodName(),
+        final ImageFileDto file = adsServiceCached.getAdImageFile(adId);
+        if (file.getName() == null || file.getName().isBlank()) {
+            LogEx.error(log, LogEx.THIS_METHOD,
                     "Ad " + adId + ": " + "image file not set");
-            return resourceService.getDefaultAdImage();
-        }
-
-        Path filePath = resourceService.getAdImagePath(filename);
-        if (!Files.exists(filePath)) {
-            LogEx.error(log, LogEx.getThisMethodName(),
-                    "Ad " + adId + ": " + "image file \"" + filename + "\" not found");
-            return resourceService.getDefaultAdImage();
         }
 
-        Resource resource = new PathResource(filePath);
-        MediaType mediaType = MediaType.parseMediaType(image.getMediatype());
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .body(resource);
+        return resourceService.getAdImage(file, rendition, version);
     }
 
     /**
@@ -176,6 +277,39 @@ public class AdService {
         return AdMapper.toAdsDto(responseSet.size(), responseSet);
     }
 
+    /**
+     * Get a page of ads, newest first.
+     * 
+     * Keyset pagination on ad ID: the cost of a page does not depend on its position.
+     * 
+     * @param cursor Continuation token from the previous page, null for the first page.
+     * @param size Requested page size, null for default.
+     * @return Response DTO.
+     */
+    public AdsPageResponseDto getAdsPage(final String cursor, final Integer size) {
+
+        final long beforeId = (cursor == null || cursor.isBlank())
+                ? Long.MAX_VALUE
+                : CursorMapper.fromToken(cursor, 1)[0];
+        final int pageSize = pagingValuesConfig.resolvePageSize(size);
+
+        // One extra row tells whether there is a next page.
+        final List<AdResponseProjection> projections =
+                adRepository.findManyMinimalBefore(beforeId, Limit.of(pageSize + 1));
+
+        final boolean hasNext = projections.size() > pageSize;
+        final List<AdResponseDto> responseList = projections.stream()
+                .limit(pageSize)
+                .map(projection -> AdMapper.toDto(resourceService, projection))
+                .toList();
+
+        final String next = hasNext
+                ? CursorMapper.toToken(responseList.getLast().getId())
+                : null;
+
+        return AdMapper.toAdsPageDto(responseList, next);
+    }
+
     /**
      * Update ad image.
      * 
@@ -192,23 +326,31 @@ public class AdService {
         AdEntity ad = adRepository.findOneByUserNameAndAdId(userName, adId)
                 .orElseThrow(() -> new TkAdNotFoundException(String.valueOf(adId)));
 
-        String oldFileName = ad.getImage() == null ? "" : ad.getImage().getName();
-        if (!oldFileName.isBlank()) {
-            TransactionSynchronizationManager.registerSynchronization(
-                    new TransactionSynchronization() {
-                        @Override
-                        public void afterCompletion(int status) {
-                            if (status == STATUS_ROLLED_BACK) {
-                                resourceService.deleteAdImageFile(newFileName);
-                            } else if (status == STATUS_COMMITTED) {
-                                resourceService.deleteAdImageFile(oldFileName);
-                                adsServiceCached.clearCaches();
+        ImageEntity image = imageRepository.findById(adId).orElse(null);
+        String oldFileName = image == null ? "" : image.getName();
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_ROLLED_BACK) {
+                            imageReferenceService.releaseAdImageFile(newFileName);
+                        } else if (status == STATUS_COMMITTED) {
+                            if (!oldFileName.isBlank()) {
+                                imageReferenceService.releaseAdImageFile(oldFileName);
                             }
+                            adsServiceCached.evictAd(adId, userName,
+                                    CacheEvictionReason.AD_IMAGE_UPDATED);
                         }
-                    });
-        }
+                    }
+                });
+
+        imageReferenceService.acquireAdImageFile(newFileName);
 
-        ImageEntity image = ad.getImage();
+        if (image == null) {
+            imageRepository.save(new ImageEntity(ad, newFileName, newFileSize.intValue(),
+                    newContentType));
+            return;
+        }
 
         image.setName(newFileName);
         image.setSize(newFileSize.intValue());
@@ -240,12 +382,17 @@ public class AdService {
                     @Override
                     public void afterCompletion(int status) {
                         if (status == STATUS_COMMITTED) {
-                            adsServiceCached.clearCaches();
+                            adsServiceCached.evictAd(adId, userDetails.getUsername(),
+                                    CacheEvictionReason.AD_UPDATED);
                         }
                     }
                 });
 
-        return AdMapper.toDto(resourceService, ad);
+        final String imageName = imageRepository.findOneFile(adId)
+                .map(ImageFileDto::getName)
+                .orElse(null);
+
+        return AdMapper.toDto(resourceService, ad, imageName);
     }
 
     /**
@@ -257,27 +404,31 @@ public class AdService {
     @Transactional
     public void deleteAd(UserDetails userDetails, long adId) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         AdEntity ad = adRepository
                 .findOneByUserNameAndAdId(userDetails.getUsername(), adId)
                 .orElseThrow(() -> new TkAdNotFoundException(String.valueOf(adId)));
 
-        String deletingFileName = ad.getImage() == null ? "" : ad.getImage().getName();
-        if (!deletingFileName.isBlank()) {
-            TransactionSynchronizationManager.registerSynchronization(
-                    new TransactionSynchronization() {
-                        @Override
-                        public void afterCompletion(int status) {
-                            if (status == STATUS_COMMITTED) {
-                                resourceService.deleteAdImageFile(deletingFileName);
-                                adsServiceCached.clearCaches();
+        // Image row is deleted by database: ON DELETE CASCADE.
+        String deletingFileName = imageRepository.findOneFile(adId)
+                .map(ImageFileDto::getName)
+                .orElse("");
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            if (!deletingFileName.isBlank()) {
+                                imageReferenceService.releaseAdImageFile(deletingFileName);
                             }
+                            adsServiceCached.evictAd(adId, userDetails.getUsername(),
+                                    CacheEvictionReason.AD_DELETED);
                         }
-                    });
-        }
+                    }
+                });
 
         adRepository.delete(ad);
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPED);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
     }
 }
@@ -2,21 +2,41 @@ package ru.spb.tksoft.ads.service;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.config.MetricsConfig;
+import ru.spb.tksoft.ads.config.PagingValuesConfig;
 import ru.spb.tksoft.ads.dto.response.AdExtendedResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdFullResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentsPageResponseDto;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
+import ru.spb.tksoft.ads.enumeration.CacheEvictionReason;
 import ru.spb.tksoft.ads.exception.TkAdNotFoundException;
+import ru.spb.tksoft.ads.exception.TkMediaNotFoundException;
+import ru.spb.tksoft.ads.exception.TkServiceBusyException;
 import ru.spb.tksoft.ads.mapper.AdMapper;
+import ru.spb.tksoft.ads.mapper.CommentMapper;
 import ru.spb.tksoft.ads.projection.AdExtendedResponseProjection;
 import ru.spb.tksoft.ads.projection.AdResponseProjection;
+import ru.spb.tksoft.ads.projection.CommentProjection;
 import ru.spb.tksoft.ads.repository.AdRepository;
+import ru.spb.tksoft.ads.repository.CommentRepository;
+import ru.spb.tksoft.ads.repository.ImageRepository;
 
 /**
  * Ad service, cached methods.
@@ -25,14 +45,23 @@ import ru.spb.tksoft.ads.repository.AdRepository;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class AdServiceCached {
 
+    /** Counter of cache invalidations, tagged by reason. */
+    public static final String METRIC_INVALIDATIONS = "ads.cache.invalidations";
+
     private final AdRepository adRepository;
+    private final ImageRepository imageRepository;
+    private final CommentRepository commentRepository;
 
     private final ResourceService resourceService;
+    private final PagingValuesConfig pagingValuesConfig;
 
     private final CacheManager cacheManager;
 
+    private final MeterRegistry meterRegistry;
+
     private void clearCache(String name) {
 
         Cache cache = cacheManager.getCache(name);
@@ -41,11 +70,91 @@ public class AdServiceCached {
         cache.clear();
     }
 
-    /** Clear caches. */
+    private void evictCacheKey(String name, Object key) {
+
+        Cache cache = cacheManager.getCache(name);
+        assert (cache != null);
+
+        cache.evict(key);
+    }
+
+    private void countInvalidation(CacheEvictionReason reason) {
+
+        Counter.builder(METRIC_INVALIDATIONS)
+                .description("Ads cache invalidations")
+                .tag("reason", reason.tagValue())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /** Clear caches: maintenance only, writes use {@link #evictAd}. */
     public void clearCaches() {
 
         clearCache("getAds");
         clearCache("getAdInfo");
+        clearCache("getAdImageFile");
+        clearCache("getAdFull");
+        clearCache("getCommentsFirstPage");
+        countInvalidation(CacheEvictionReason.MAINTENANCE);
+    }
+
+    /**
+     * Evict cached entries affected by a change of one ad.
+     * 
+     * @param adId Ad ID.
+     * @param ownerName Name of the ad owner.
+     * @param reason Reason of eviction.
+     */
+    public void evictAd(final long adId, final String ownerName,
+            final CacheEvictionReason reason) {
+
+        evictCacheKey("getAdInfo", adId);
+        evictCacheKey("getAdImageFile", adId);
+        evictCacheKey("getAdFull", adId);
+        evictCacheKey("getCommentsFirstPage", adId);
+        evictCacheKey("getAds", ownerName);
+        countInvalidation(reason);
+    }
+
+    /**
+     * Evict cached ads list of the owner: new ads are not cached by ID yet.
+     * 
+     * @param ownerName Name of the ads owner.
+     * @param reason Reason of eviction.
+     */
+    public void evictOwnerAds(final String ownerName, final CacheEvictionReason reason) {
+
+        evictCacheKey("getAds", ownerName);
+        countInvalidation(reason);
+    }
+
+    /**
+     * Evict cached entries affected by a change of ad's comments.
+     * 
+     * @param adId Ad ID.
+     * @param reason Reason of eviction.
+     */
+    public void evictAdComments(final long adId, final CacheEvictionReason reason) {
+
+        evictCacheKey("getAdFull", adId);
+        evictCacheKey("getCommentsFirstPage", adId);
+        countInvalidation(reason);
+    }
+
+    /**
+     * Clear cached entries embedding user's profile: author of ads and of comments.
+     * 
+     * Ads and comments of a user are not tracked by cache key, and profile updates are rare, so
+     * these caches are cleared as a whole.
+     * 
+     * @param reason Reason of eviction.
+     */
+    public void evictUserProfile(final CacheEvictionReason reason) {
+
+        clearCache("getAdInfo");
+        clearCache("getAdFull");
+        clearCache("getCommentsFirstPage");
+        countInvalidation(reason);
     }
 
     /**
@@ -85,4 +194,90 @@ public class AdServiceCached {
 
         return AdMapper.toDto(resourceService, projection);
     }
+
+    /**
+     * Get stored image file of ad.
+     *
+     * @param adId Ad id.
+     * @return Image file DTO.
+     * @throws TkMediaNotFoundException If there is no image.
+     */
+    @Cacheable(value = "getAdImageFile", key = "#adId")
+    public ImageFileDto getAdImageFile(final Long adId) {
+
+        return imageRepository.findOneFile(adId)
+                .orElseThrow(() -> new TkMediaNotFoundException(String.valueOf(adId)));
+    }
+
+    /**
+     * Result of a task, unwrapping the exception it has thrown.
+     */
+    private static <T> T join(final Future<T> future) {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TkServiceBusyException("ad details");
+        }
+    }
+
+    /**
+     * The first page of ad's comments, default page size.
+     */
+    private CommentsPageResponseDto loadCommentsFirstPage(final Long adId) {
+
+        final int pageSize = pagingValuesConfig.resolvePageSize(null);
+        final List<CommentProjection> projections =
+                commentRepository.findManyMinimalByAdId(adId, Limit.of(pageSize + 1));
+
+        return CommentMapper.toCommentsPageDto(resourceService, projections, pageSize);
+    }
+
+    /**
+     * Get ad with author and the first page of its comments: everything the ad page needs in
+     * one response.
+     * 
+     * Ad and comments are queried concurrently on virtual threads, each query on its own
+     * connection. Comments of a missing ad are discarded.
+     *
+     * @param adId Ad id.
+     * @return Response DTO.
+     */
+    @Cacheable(value = "getAdFull", key = "#adId")
+    public AdFullResponseDto getAdFull(final Long adId) {
+
+        final Future<AdExtendedResponseDto> adFuture;
+        final Future<CommentsPageResponseDto> commentsFuture;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            adFuture = executor.submit(() -> AdMapper.toDto(resourceService,
+                    adRepository.findOneExtended(adId)
+                            .orElseThrow(() -> new TkAdNotFoundException(
+                                    String.valueOf(adId)))));
+
+            commentsFuture = executor.submit(() -> loadCommentsFirstPage(adId));
+        }
+
+        // The ad goes first: TkAdNotFoundException wins over the comments.
+        final AdExtendedResponseDto ad = join(adFuture);
+        return new AdFullResponseDto(ad, join(commentsFuture));
+    }
+
+    /**
+     * Get the first page of ad's comments, default page size: the page most of the readers
+     * see.
+     *
+     * @param adId Ad id.
+     * @return Response DTO.
+     */
+    @Cacheable(value = "getCommentsFirstPage", key = "#adId")
+    public CommentsPageResponseDto getCommentsFirstPage(final Long adId) {
+        return loadCommentsFirstPage(adId);
+    }
 }
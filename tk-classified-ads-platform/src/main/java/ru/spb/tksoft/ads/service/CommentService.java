@@ -1,23 +1,47 @@
 package ru.spb.tksoft.ads.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.config.MaintenanceValuesConfig;
+import ru.spb.tksoft.ads.config.MetricsConfig;
+import ru.spb.tksoft.ads.config.PagingValuesConfig;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateCommentRequestDto;
 import ru.spb.tksoft.ads.dto.response.CommentResponseDto;
 import ru.spb.tksoft.ads.dto.response.CommentsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentsPageResponseDto;
 import ru.spb.tksoft.ads.entity.AdEntity;
 import ru.spb.tksoft.ads.entity.CommentEntity;
 import ru.spb.tksoft.ads.entity.UserEntity;
+import ru.spb.tksoft.ads.enumeration.CacheEvictionReason;
 import ru.spb.tksoft.ads.exception.TkAdNotFoundException;
 import ru.spb.tksoft.ads.exception.TkCommentNotFoundException;
+import ru.spb.tksoft.ads.exception.TkServiceBusyException;
 import ru.spb.tksoft.ads.exception.TkUserNotFoundException;
 import ru.spb.tksoft.ads.mapper.CommentMapper;
+import ru.spb.tksoft.ads.mapper.CursorMapper;
+import ru.spb.tksoft.ads.projection.CommentProjection;
 import ru.spb.tksoft.ads.repository.AdRepository;
 import ru.spb.tksoft.ads.repository.CommentRepository;
 import ru.spb.tksoft.ads.repository.UserRepository;
@@ -30,16 +54,46 @@ import ru.spb.tksoft.utils.log.LogEx;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class CommentService {
 
     private final Logger log = LoggerFactory.getLogger(CommentService.class);
 
     private final ResourceService resourceService;
+    private final AdServiceCached adServiceCached;
+    private final PagingValuesConfig pagingValuesConfig;
+    private final MaintenanceValuesConfig maintenanceValuesConfig;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
 
     private final AdRepository adRepository;
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
 
+    private Semaphore exportPermits;
+
+    @PostConstruct
+    void init() {
+
+        exportPermits = new Semaphore(maintenanceValuesConfig.getExportMaxConcurrent());
+    }
+
+    /**
+     * Evict cached ad page when current transaction commits.
+     */
+    private void evictAdCommentsOnCommit(final long adId, final CacheEvictionReason reason) {
+
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            adServiceCached.evictAdComments(adId, reason);
+                        }
+                    }
+                });
+    }
+
     /**
      * Create comment entity.
      * 
@@ -74,27 +128,62 @@ public class CommentService {
     @Transactional
     public CommentResponseDto addComment(final CommentEntity entity) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
+        evictAdCommentsOnCommit(entity.getAd().getId(), CacheEvictionReason.COMMENT_CREATED);
         CommentEntity savedComment = commentRepository.save(entity);
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
         return CommentMapper.toDto(resourceService, savedComment);
     }
 
     /**
-     * Get comments for given ad.
+     * Get comments for given ad, newest first.
      * 
      * @param adId Ad id.
      * @return Response DTO.
      */
     public CommentsArrayResponseDto getComments(final Long adId) {
 
-        Set<CommentResponseDto> resultSet = commentRepository.findManyByAdId(adId).stream()
-                .map(comment -> CommentMapper.toDto(resourceService, comment))
-                .collect(Collectors.toSet());
+        List<CommentResponseDto> resultList =
+                commentRepository.findManyMinimalByAdId(adId, Limit.unlimited()).stream()
+                        .map(comment -> CommentMapper.toDto(resourceService, comment))
+                        .toList();
+
+        return CommentMapper.toDto(resultList);
+    }
 
-        return CommentMapper.toDto(resultSet);
+    /**
+     * Get a page of comments for given ad, newest first.
+     * 
+     * Keyset pagination on (created_at, id). The first page of default size is cached per ad.
+     * 
+     * @param adId Ad id.
+     * @param cursor Continuation token from the previous page, null for the first page.
+     * @param size Requested page size, null for default.
+     * @return Response DTO.
+     */
+    public CommentsPageResponseDto getCommentsPage(final Long adId, final String cursor,
+            final Integer size) {
+
+        final boolean firstPage = cursor == null || cursor.isBlank();
+        final int pageSize = pagingValuesConfig.resolvePageSize(size);
+        if (firstPage && pageSize == pagingValuesConfig.resolvePageSize(null)) {
+            return adServiceCached.getCommentsFirstPage(adId);
+        }
+
+        // One extra row tells whether there is a next page.
+        final List<CommentProjection> projections;
+        if (firstPage) {
+            projections = commentRepository.findManyMinimalByAdId(adId,
+                    Limit.of(pageSize + 1));
+        } else {
+            final long[] keyset = CursorMapper.fromToken(cursor, 2);
+            projections = commentRepository.findManyMinimalByAdIdBefore(adId,
+                    CursorMapper.toInstant(keyset[0]), keyset[1], Limit.of(pageSize + 1));
+        }
+
+        return CommentMapper.toCommentsPageDto(resourceService, projections, pageSize);
     }
 
     /**
@@ -105,11 +194,77 @@ public class CommentService {
     public CommentsArrayResponseDto getAllComments() {
 
         List<CommentEntity> comments = commentRepository.findMany();
-        Set<CommentResponseDto> resultSet = comments.stream()
+        List<CommentResponseDto> resultList = comments.stream()
                 .map(comment -> CommentMapper.toDto(resourceService, comment))
-                .collect(Collectors.toSet());
+                .toList();
+
+        return CommentMapper.toDto(resultList);
+    }
+
+    /**
+     * Take a slot of comments export: call before the response starts, so that a busy server
+     * can still answer with an error status. The slot is released by exportComments.
+     * 
+     * @throws TkServiceBusyException If maintenance.export-max-concurrent exports are running.
+     */
+    public void startExport() {
+
+        if (!exportPermits.tryAcquire()) {
+            throw new TkServiceBusyException("comments export");
+        }
+    }
+
+    /**
+     * Write all comments as NDJSON: one comment DTO per line.
+     * 
+     * Comments are read from a database cursor and written as they come, memory does not depend
+     * on the amount of comments. A database connection is held until the export is complete.
+     * 
+     * Releases the slot taken by startExport, whatever the outcome.
+     * 
+     * @param out Output stream, left open.
+     */
+    public void exportComments(final OutputStream out) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        try {
+            writeComments(out);
+        } finally {
+            exportPermits.release();
+        }
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
+    }
+
+    private void writeComments(final OutputStream out) {
+
+        // Generator's own buffer is flushed when full, not after every comment. Values are
+        // separated by the newline alone, not by the default root value separator (space).
+        final ObjectWriter writer = objectMapper.writerFor(CommentResponseDto.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        final TransactionTemplate transactionTemplate =
+                new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CommentProjection> comments = commentRepository.streamAllMinimal();
+                    JsonGenerator generator = writer.createGenerator(out)
+                            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    SequenceWriter sequence = writer.writeValues(generator)) {
+
+                final Iterator<CommentProjection> iterator = comments.iterator();
+                while (iterator.hasNext()) {
+                    sequence.write(CommentMapper.toDto(resourceService, iterator.next()));
+                    generator.writeRaw('\n');
+                }
 
-        return CommentMapper.toDto(resultSet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     /**
@@ -127,6 +282,7 @@ public class CommentService {
                         "Comment from " + userName + " with id " + commentId + " not found"));
 
         comment.setText(requestDto.getText());
+        evictAdCommentsOnCommit(adId, CacheEvictionReason.COMMENT_UPDATED);
         return CommentMapper.toDto(resourceService, comment);
     }
 
@@ -140,13 +296,14 @@ public class CommentService {
     @Transactional
     public void deleteComment(final String userName, Long adId, Long commentId) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         CommentEntity comment = commentRepository.findOneByUserExact(userName, adId, commentId)
                 .orElseThrow(() -> new TkCommentNotFoundException(
                         "Comment from " + userName + " with id " + commentId + " not found"));
 
+        evictAdCommentsOnCommit(adId, CacheEvictionReason.COMMENT_DELETED);
         commentRepository.delete(comment);
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPED);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
     }
 }
@@ -0,0 +1,125 @@
+package ru.spb.tksoft.ads.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.exception.TkSavingMediaException;
+import ru.spb.tksoft.ads.repository.AvatarRepository;
+import ru.spb.tksoft.ads.repository.ImageRepository;
+import ru.spb.tksoft.utils.log.LogEx;
+
+/**
+ * Reference counting of stored image files.
+ *
+ * With content-addressed storage one file may be referenced by several rows of "image" or
+ * "avatar" table; the file is deleted only when the last reference goes. Adding and releasing
+ * references to the same file name are serialized with transaction-scoped advisory locks.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Service
+@RequiredArgsConstructor
+public class ImageReferenceService {
+
+    private final Logger log = LoggerFactory.getLogger(ImageReferenceService.class);
+
+    private final ResourceService resourceService;
+
+    private final ImageRepository imageRepository;
+    private final AvatarRepository avatarRepository;
+
+    private void acquire(final String fileName, final ToLongFunction<String> lock,
+            final Path path, final Predicate<String> restore) {
+
+        if (fileName == null || fileName.isBlank()) {
+            return;
+        }
+
+        lock.applyAsLong(fileName);
+
+        // Last reference might have been released between saving the file and this point:
+        // the spare copy of the upload takes its place.
+        if (!Files.exists(path) && !restore.test(fileName)) {
+            throw new TkSavingMediaException(path.toString());
+        }
+    }
+
+    private void release(final String fileName, final ToLongFunction<String> lock,
+            final ToLongFunction<String> count, final Consumer<String> delete) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        if (fileName != null && !fileName.isBlank()) {
+            lock.applyAsLong(fileName);
+            if (count.applyAsLong(fileName) == 0) {
+                delete.accept(fileName);
+            }
+        }
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
+    }
+
+    /**
+     * Take a reference to stored ad image file inside current transaction.
+     *
+     * @param fileName File name.
+     * @throws TkSavingMediaException If file has gone already and there is no spare copy.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void acquireAdImageFile(final String fileName) {
+
+        acquire(fileName, imageRepository::lockName,
+                resourceService.getAdImagePath(fileName == null ? "" : fileName),
+                resourceService::restoreAdImageFile);
+    }
+
+    /**
+     * Delete stored ad image file if no ad references it.
+     *
+     * Runs in its own transaction, so it is safe to call from afterCompletion.
+     *
+     * @param fileName File name.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseAdImageFile(final String fileName) {
+
+        release(fileName, imageRepository::lockName, imageRepository::countByName,
+                resourceService::deleteAdImageFile);
+    }
+
+    /**
+     * Take a reference to stored avatar file inside current transaction.
+     *
+     * @param fileName File name.
+     * @throws TkSavingMediaException If file has gone already and there is no spare copy.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void acquireAvatarFile(final String fileName) {
+
+        acquire(fileName, avatarRepository::lockName,
+                resourceService.getAvatarImagePath(fileName == null ? "" : fileName),
+                resourceService::restoreAvatarFile);
+    }
+
+    /**
+     * Delete stored avatar file if no user references it.
+     *
+     * Runs in its own transaction, so it is safe to call from afterCompletion.
+     *
+     * @param fileName File name.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void releaseAvatarFile(final String fileName) {
+
+        release(fileName, avatarRepository::lockName, avatarRepository::countByName,
+                resourceService::deleteAvatarImageFile);
+    }
+}
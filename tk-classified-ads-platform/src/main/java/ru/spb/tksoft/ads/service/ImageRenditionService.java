@@ -0,0 +1,190 @@
+package ru.spb.tksoft.ads.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import jakarta.validation.constraints.NotNull;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
+import ru.spb.tksoft.utils.log.LogEx;
+
+/**
+ * Image renditions: generation, lookup, removal.
+ * 
+ * Rendition file name is the original one with rendition suffix before extension:
+ * "name.jpeg" -> "name.thumb.jpeg". Rendition keeps the format of the original, so original
+ * media type is valid for it.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Service
+public class ImageRenditionService {
+
+    private final Logger log = LoggerFactory.getLogger(ImageRenditionService.class);
+
+    /**
+     * Rendition file name.
+     * 
+     * @param fileName Original file name.
+     * @param rendition Rendition.
+     * @return Rendition file name.
+     */
+    @NotNull
+    public static String getRenditionFileName(final String fileName,
+            final ImageRendition rendition) {
+
+        final int dot = fileName.lastIndexOf('.');
+        final String suffix = "." + rendition.getParameterValue();
+        return dot < 0
+                ? fileName + suffix
+                : fileName.substring(0, dot) + suffix + fileName.substring(dot);
+    }
+
+    /**
+     * Path of the file to serve.
+     * 
+     * @param originalPath Path of the original.
+     * @param rendition Rendition, null for original.
+     * @return Rendition path if it exists, original path otherwise.
+     */
+    @NotNull
+    public Path resolve(final Path originalPath, final ImageRendition rendition) {
+
+        if (rendition == null) {
+            return originalPath;
+        }
+
+        final Path path = originalPath.resolveSibling(
+                getRenditionFileName(originalPath.getFileName().toString(), rendition));
+        return Files.exists(path) ? path : originalPath;
+    }
+
+    /**
+     * Generate renditions of saved original. Failures are logged only: originals are served
+     * instead of missing renditions.
+     * 
+     * @param originalPath Path of the original.
+     * @param contentType Media type of the original.
+     */
+    public void createRenditions(final Path originalPath, final String contentType) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        final String formatName = contentType.substring(contentType.lastIndexOf('/') + 1);
+        if (!ImageIO.getImageWritersByFormatName(formatName).hasNext()) {
+            LogEx.debug(log, LogEx.THIS_METHOD, "No writer for format", formatName);
+            return;
+        }
+
+        try {
+            BufferedImage source = ImageIO.read(originalPath.toFile());
+            if (source == null) {
+                LogEx.warn(log, LogEx.THIS_METHOD, "Cannot decode", originalPath);
+                return;
+            }
+
+            final boolean opaque = "jpeg".equals(formatName) || "jpg".equals(formatName)
+                    || !source.getColorModel().hasAlpha();
+
+            // Largest first: each next rendition is scaled from the previous one.
+            final ImageRendition[] renditions = ImageRendition.values();
+            for (int i = renditions.length - 1; i >= 0; i--) {
+
+                final ImageRendition rendition = renditions[i];
+                if (Math.max(source.getWidth(), source.getHeight()) <= rendition.getMaxSide()) {
+                    continue;
+                }
+
+                source = scaleToFit(source, rendition.getMaxSide(), opaque);
+                write(source, formatName, originalPath.resolveSibling(getRenditionFileName(
+                        originalPath.getFileName().toString(), rendition)));
+            }
+        } catch (Exception ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, LogEx.EXCEPTION_THROWN, ex);
+        }
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
+    }
+
+    private void write(final BufferedImage image, final String formatName, final Path path)
+            throws Exception {
+
+        try {
+            if (!ImageIO.write(image, formatName, path.toFile())) {
+                Files.deleteIfExists(path);
+            }
+        } catch (Exception ex) {
+            Files.deleteIfExists(path);
+            throw ex;
+        }
+    }
+
+    /**
+     * Downscale image to fit a square, halving steps keep bilinear quality acceptable.
+     * 
+     * @param source Source image.
+     * @param maxSide Max width and height.
+     * @param opaque True if result must have no alpha channel.
+     * @return Scaled image.
+     */
+    @NotNull
+    public static BufferedImage scaleToFit(final BufferedImage source, final int maxSide,
+            final boolean opaque) {
+
+        final double scale =
+                Math.min(1.0, (double) maxSide / Math.max(source.getWidth(), source.getHeight()));
+        final int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        final int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        final int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            final var next = new BufferedImage(width, height, type);
+            final Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING,
+                        RenderingHints.VALUE_RENDER_QUALITY);
+                if (opaque) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, width, height);
+                }
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    /**
+     * Delete all renditions of the original.
+     * 
+     * @param originalPath Path of the original.
+     * @throws Exception If deletion failed.
+     */
+    public void deleteRenditions(final Path originalPath) throws Exception {
+
+        final String fileName = originalPath.getFileName().toString();
+        for (ImageRendition rendition : ImageRendition.values()) {
+            Files.deleteIfExists(
+                    originalPath.resolveSibling(getRenditionFileName(fileName, rendition)));
+        }
+    }
+}
@@ -1,31 +1,63 @@
 package ru.spb.tksoft.ads.service;
 
+import java.awt.Dimension;
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.imaging.ImageFormat;
+import org.apache.commons.imaging.ImageFormats;
+import org.apache.commons.imaging.Imaging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.PathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import ru.spb.tksoft.ads.config.ImageProcessingProperties;
+import ru.spb.tksoft.ads.config.MetricsConfig;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
 import ru.spb.tksoft.ads.exception.TkDeletingMediaException;
 import ru.spb.tksoft.ads.exception.TkNullArgumentException;
 import ru.spb.tksoft.ads.exception.TkSavingMediaException;
+import ru.spb.tksoft.ads.exception.TkServiceBusyException;
 import ru.spb.tksoft.ads.exception.TkSizeException;
 import ru.spb.tksoft.ads.exception.TkUnsupportedMediaTypeException;
+import ru.spb.tksoft.ads.io.IoBufferPool;
 import ru.spb.tksoft.utils.log.LogEx;
 
-import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
 /**
  * Deal with [file] resource.
@@ -39,13 +71,81 @@ public class ResourceService {
     /** Maximum length of content-type string. */
     public static final int CONTENT_TYPE_LENGTH_MAX = 128;
 
+    /** Name of the request parameter carrying image version. */
+    public static final String VERSION_PARAMETER_NAME = "v";
+
+    /** Max age of versioned (immutable) image URL, days. */
+    public static final long IMMUTABLE_MAX_AGE_DAYS = 365;
+
+    /** Content hash algorithm of content-addressed storage. */
+    public static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+
+    /** Bytes enough to detect image format by signature. */
+    public static final int IMAGE_HEADER_PREFIX_LENGTH = 32;
+
+    /** Media types of detected image formats. */
+    private static final Map<ImageFormat, String> IMAGE_FORMAT_MIME_TYPES = Map.of(
+            ImageFormats.JPEG, MediaType.IMAGE_JPEG_VALUE,
+            ImageFormats.PNG, MediaType.IMAGE_PNG_VALUE,
+            ImageFormats.WEBP, "image/webp");
+
+    /** Length of one directory name of sharded layout. */
+    public static final int SHARD_NAME_LENGTH = 2;
+
+    /** Metric tag: image type. */
+    public static final String TAG_TYPE = "type";
+
+    /** Image type: avatar. */
+    public static final String TYPE_AVATAR = "avatar";
+
+    /** Image type: ad image. */
+    public static final String TYPE_AD = "ad";
+
+    /** Counter of uploaded bytes, tagged by image type. */
+    public static final String METRIC_UPLOAD_BYTES = "ads.upload.bytes";
+
+    /** Counter of bytes of new content written to storage, tagged by image type. */
+    public static final String METRIC_STORED_BYTES = "ads.upload.stored.bytes";
+
+    /** Minutes a spare copy of deduplicated upload is kept: enough to reach acquire. */
+    public static final long SPARE_FILE_TTL_MINUTES = 60;
+
+    private static final String TEMP_FILE_PREFIX = "upload-";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
     private final Logger log = LoggerFactory.getLogger(ResourceService.class);
 
+    /** Uploaded temporary file with the same content as stored one. */
+    private record SpareFile(Path path, String mediatype) {
+    }
+
+    /**
+     * Spare copies of deduplicated uploads by stored file path, the latest one per path.
+     * 
+     * The last reference to stored file may be released between upload and acquire: the spare
+     * then takes its place. Replaced and expired spares are deleted; a restored one is moved.
+     */
+    private final Cache<Path, SpareFile> spareFiles = Caffeine.newBuilder()
+            .expireAfterWrite(SPARE_FILE_TTL_MINUTES, TimeUnit.MINUTES)
+            .scheduler(Scheduler.systemScheduler())
+            .<Path, SpareFile>removalListener((path, spare, cause) -> {
+                if (spare != null && cause != RemovalCause.EXPLICIT) {
+                    deleteTempFile(spare.path());
+                }
+            })
+            .build();
+
     private final ImageProcessingProperties avatarImageProcessing;
     private final ImageProcessingProperties adImageProcessing;
 
     private final ResourceLoader resourceLoader;
 
+    private final ImageRenditionService imageRenditionService;
+
+    private final IoBufferPool ioBufferPool;
+
+    private final MeterRegistry meterRegistry;
+
     private ResponseEntity<Resource> getDefault(final ImageProcessingProperties properties) {
 
         try {
@@ -53,7 +153,7 @@ public class ResourceService {
             MediaType mediaType = MediaType.parseMediaType(properties.mimeTypeDefault());
             return ResponseEntity.ok().contentType(mediaType).body(resource);
         } catch (Exception ex) {
-            LogEx.error(log, LogEx.getThisMethodName(), ex);
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
             throw ex;
         }
     }
@@ -78,6 +178,39 @@ public class ResourceService {
         return getDefault(adImageProcessing);
     }
 
+    /**
+     * Image version: file name without extension. File names are never reused, so the version
+     * identifies the content.
+     * 
+     * @param fileName File name, may be null.
+     * @return Version or null.
+     */
+    public static String getImageVersion(final String fileName) {
+
+        if (fileName == null || fileName.isBlank()) {
+            return null;
+        }
+        final int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+
+    private static String getImageUrl(final String basePath, final long id,
+            final ImageRendition rendition, final String version) {
+
+        final var sb = new StringBuilder(
+                Paths.get(basePath).resolve(String.valueOf(id)).toString());
+        char separator = '?';
+        if (rendition != null) {
+            sb.append(separator).append(ImageRendition.PARAMETER_NAME)
+                    .append('=').append(rendition.getParameterValue());
+            separator = '&';
+        }
+        if (version != null) {
+            sb.append(separator).append(VERSION_PARAMETER_NAME).append('=').append(version);
+        }
+        return sb.toString();
+    }
+
     /**
      * Get avatar URL.
      * 
@@ -86,8 +219,33 @@ public class ResourceService {
      */
     public String getAvatarImageUrl(long userId) {
 
-        return Paths.get(avatarImageProcessing.urlBasePath())
-                .resolve(String.valueOf(userId)).toString();
+        return getImageUrl(avatarImageProcessing.urlBasePath(), userId, null, null);
+    }
+
+    /**
+     * Get avatar URL of given rendition.
+     * 
+     * @param userId User ID.
+     * @param rendition Rendition, null for original.
+     * @return Avatar URL in a form of "/avatar-base-path/user-id?size=rendition".
+     */
+    public String getAvatarImageUrl(long userId, final ImageRendition rendition) {
+
+        return getImageUrl(avatarImageProcessing.urlBasePath(), userId, rendition, null);
+    }
+
+    /**
+     * Get versioned avatar URL of given rendition: such URL can be cached forever.
+     * 
+     * @param userId User ID.
+     * @param rendition Rendition, null for original.
+     * @param version Image version, null for unversioned URL.
+     * @return Avatar URL in a form of "/avatar-base-path/user-id?size=rendition&v=version".
+     */
+    public String getAvatarImageUrl(long userId, final ImageRendition rendition,
+            final String version) {
+
+        return getImageUrl(avatarImageProcessing.urlBasePath(), userId, rendition, version);
     }
 
     /**
@@ -98,8 +256,149 @@ public class ResourceService {
      */
     public String getAdImageUrl(long imageId) {
 
-        return Paths.get(adImageProcessing.urlBasePath())
-                .resolve(String.valueOf(imageId)).toString();
+        return getImageUrl(adImageProcessing.urlBasePath(), imageId, null, null);
+    }
+
+    /**
+     * Get ad's image URL of given rendition.
+     * 
+     * @param imageId Image ID.
+     * @param rendition Rendition, null for original.
+     * @return Image URL in a form of "/image-base-path/image-id?size=rendition".
+     */
+    public String getAdImageUrl(long imageId, final ImageRendition rendition) {
+
+        return getImageUrl(adImageProcessing.urlBasePath(), imageId, rendition, null);
+    }
+
+    /**
+     * Get versioned ad's image URL of given rendition: such URL can be cached forever.
+     * 
+     * @param imageId Image ID.
+     * @param rendition Rendition, null for original.
+     * @param version Image version, null for unversioned URL.
+     * @return Image URL in a form of "/image-base-path/image-id?size=rendition&v=version".
+     */
+    public String getAdImageUrl(long imageId, final ImageRendition rendition,
+            final String version) {
+
+        return getImageUrl(adImageProcessing.urlBasePath(), imageId, rendition, version);
+    }
+
+    private ResponseEntity<Resource> getImage(final ImageProcessingProperties properties,
+            final ImageFileDto file, final ImageRendition rendition,
+            final String requestedVersion) {
+
+        final String fileName = file.getName();
+        if (fileName == null || fileName.isBlank()) {
+            return getDefault(properties);
+        }
+
+        final Path path = imageRenditionService.resolve(
+                getStoragePath(properties, fileName), rendition);
+
+        final BasicFileAttributes attributes;
+        try {
+            // One call instead of exists() + getLastModifiedTime().
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, "File not found", path);
+            return getDefault(properties);
+        } catch (Exception ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, LogEx.EXCEPTION_THROWN, ex);
+            return getDefault(properties);
+        }
+
+        final String version = getImageVersion(fileName);
+        final CacheControl cacheControl = version.equals(requestedVersion)
+                ? CacheControl.maxAge(IMMUTABLE_MAX_AGE_DAYS, TimeUnit.DAYS)
+                        .cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+
+        // Not-modified check (304) and Range (206) are done by Spring MVC for Resource body.
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(file.getMediatype()))
+                .eTag(getImageVersion(path.getFileName().toString()))
+                .lastModified(attributes.lastModifiedTime().toMillis())
+                .cacheControl(cacheControl)
+                .body(new PathResource(path));
+    }
+
+    /**
+     * Get ad image response: validators, cache control, default image if file is missing.
+     * 
+     * @param file Stored image file.
+     * @param rendition Rendition, null for original.
+     * @param requestedVersion Version from URL, null if absent.
+     * @return Response entity.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public ResponseEntity<Resource> getAdImage(final ImageFileDto file,
+            final ImageRendition rendition, final String requestedVersion) {
+
+        return getImage(adImageProcessing, file, rendition, requestedVersion);
+    }
+
+    /**
+     * Get avatar response: validators, cache control, default avatar if file is missing.
+     * 
+     * @param file Stored avatar file.
+     * @param rendition Rendition, null for original.
+     * @param requestedVersion Version from URL, null if absent.
+     * @return Response entity.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public ResponseEntity<Resource> getAvatarImage(final ImageFileDto file,
+            final ImageRendition rendition, final String requestedVersion) {
+
+        return getImage(avatarImageProcessing, file, rendition, requestedVersion);
+    }
+
+    /**
+     * Path of stored file relative to storage directory.
+     * 
+     * Fan-out by leading characters of the file name: "abcdef.jpeg" with depth 2 is stored as
+     * "ab/cd/abcdef.jpeg". Stored names are hex (content hash or UUID), so directories fill
+     * evenly. Depth 0 means flat layout.
+     * 
+     * @param fileName File name.
+     * @param shardDepth Count of directory levels.
+     * @return Relative path.
+     */
+    public static Path getShardedRelativePath(final String fileName, final int shardDepth) {
+
+        if (shardDepth <= 0 || fileName.length() <= shardDepth * SHARD_NAME_LENGTH) {
+            return Path.of(fileName);
+        }
+
+        final String prefix = fileName.toLowerCase(Locale.ROOT);
+        Path path = Path.of(prefix.substring(0, SHARD_NAME_LENGTH));
+        for (int level = 1; level < shardDepth; level++) {
+            final int start = level * SHARD_NAME_LENGTH;
+            path = path.resolve(prefix.substring(start, start + SHARD_NAME_LENGTH));
+        }
+        return path.resolve(fileName);
+    }
+
+    private Path getShardedPath(final ImageProcessingProperties properties,
+            final String fileName) {
+
+        return Path.of(properties.storagePath())
+                .resolve(getShardedRelativePath(fileName, properties.shardDepth()));
+    }
+
+    /**
+     * Path of stored file: sharded one, or flat one if the file has not been migrated yet.
+     */
+    private Path getStoragePath(final ImageProcessingProperties properties,
+            final String fileName) {
+
+        final Path sharded = getShardedPath(properties, fileName);
+        final Path flat = Path.of(properties.storagePath(), fileName);
+        if (sharded.equals(flat) || Files.exists(sharded)) {
+            return sharded;
+        }
+        return Files.exists(flat) ? flat : sharded;
     }
 
     /**
@@ -120,7 +419,19 @@ public class ResourceService {
      */
     public Path getAvatarImagePath(String avatarFileName) {
 
-        return Path.of(avatarImageProcessing.storagePath(), avatarFileName);
+        return getStoragePath(avatarImageProcessing, avatarFileName);
+    }
+
+    /**
+     * Get avatar path of given rendition.
+     * 
+     * @param avatarFileName Avatar file name.
+     * @param rendition Rendition, null for original.
+     * @return Full rendition path, original path if there is no such rendition.
+     */
+    public Path getAvatarImagePath(String avatarFileName, final ImageRendition rendition) {
+
+        return imageRenditionService.resolve(getAvatarImagePath(avatarFileName), rendition);
     }
 
     /**
@@ -141,7 +452,19 @@ public class ResourceService {
      */
     public Path getAdImagePath(String imageFileName) {
 
-        return Path.of(adImageProcessing.storagePath(), imageFileName);
+        return getStoragePath(adImageProcessing, imageFileName);
+    }
+
+    /**
+     * Get image path of given rendition.
+     * 
+     * @param imageFileName Image file name.
+     * @param rendition Rendition, null for original.
+     * @return Full rendition path, original path if there is no such rendition.
+     */
+    public Path getAdImagePath(String imageFileName, final ImageRendition rendition) {
+
+        return imageRenditionService.resolve(getAdImagePath(imageFileName), rendition);
     }
 
     /**
@@ -151,8 +474,9 @@ public class ResourceService {
      * @param image Uploaded image.
      * @param properties Image validation properties.
      * @throws TkNullArgumentException If any argument is null.
-     * @throws TkUnsupportedMediaTypeException If image's MIME type is not allowed.
-     * @throws TkSizeException If image's size is not allowed.
+     * @throws TkUnsupportedMediaTypeException If image's MIME type is not allowed or does not
+     *         match real image format.
+     * @throws TkSizeException If image's size or dimensions are not allowed.
      */
     public static void validateImage(final String verb, final MultipartFile image,
             final ImageProcessingProperties properties) {
@@ -186,6 +510,81 @@ public class ResourceService {
         if (!properties.allowedMimeTypes().contains(contentType)) {
             throw new TkUnsupportedMediaTypeException(contentType);
         }
+
+        validateImageHeader(verb, image, contentType, properties);
+    }
+
+    /**
+     * Check real format and dimensions of uploaded image.
+     * 
+     * Only the header is parsed, pixel data is never decoded: oversized images and
+     * decompression bombs are rejected before anything is written to disk.
+     */
+    private static void validateImageHeader(final String verb, final MultipartFile image,
+            final String contentType, final ImageProcessingProperties properties) {
+
+        final Dimension dimension;
+        try (InputStream is = new BufferedInputStream(image.getInputStream(),
+                IMAGE_HEADER_PREFIX_LENGTH)) {
+
+            is.mark(IMAGE_HEADER_PREFIX_LENGTH);
+            final ImageFormat format =
+                    Imaging.guessFormat(is.readNBytes(IMAGE_HEADER_PREFIX_LENGTH));
+            if (!contentType.equals(IMAGE_FORMAT_MIME_TYPES.get(format))) {
+                throw new TkUnsupportedMediaTypeException(contentType);
+            }
+            is.reset();
+
+            dimension = Imaging.getImageSize(is, image.getOriginalFilename());
+        } catch (TkUnsupportedMediaTypeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new TkUnsupportedMediaTypeException(contentType);
+        }
+
+        if (dimension.width < properties.minWidth() || dimension.width > properties.maxWidth()
+                || dimension.height < properties.minHeight()
+                || dimension.height > properties.maxHeight()) {
+            throw new TkSizeException(verb + " dimensions");
+        }
+    }
+
+    /**
+     * Detect media type of image by its signature: for content that comes without one, e.g.
+     * archive entries.
+     *
+     * @param content Image content, at least its header.
+     * @return Media type.
+     * @throws TkUnsupportedMediaTypeException If format is unknown or not supported.
+     */
+    public static String detectImageMediaType(final byte[] content) {
+
+        if (content == null) {
+            throw new TkNullArgumentException("content");
+        }
+
+        final ImageFormat format;
+        try {
+            format = Imaging.guessFormat(content);
+        } catch (Exception ex) {
+            throw new TkUnsupportedMediaTypeException("unknown");
+        }
+
+        final String mediaType = IMAGE_FORMAT_MIME_TYPES.get(format);
+        if (mediaType == null) {
+            throw new TkUnsupportedMediaTypeException("unknown");
+        }
+        return mediaType;
+    }
+
+    /**
+     * Get maximum size of ad image file.
+     *
+     * @return Size, bytes.
+     */
+    public long getAdImageMaxFileSize() {
+
+        return adImageProcessing.maxFileSizeBytes();
     }
 
     /**
@@ -199,6 +598,31 @@ public class ResourceService {
      */
     public static String getImageUniqueFileName(final MultipartFile image) {
 
+        return UUID.randomUUID().toString() + "." + getImageExtension(image);
+    }
+
+    /**
+     * Generate content-addressed file name for uploaded image.
+     * 
+     * Call {@link #validateImage(String, MultipartFile, ImageProcessingProperties)} first!
+     * 
+     * @param image Uploaded image.
+     * @param contentHash Content hash of uploaded image.
+     * @return Hex-encoded content hash with extension.
+     * @throws TkNullArgumentException If any argument is null.
+     */
+    public static String getImageContentFileName(final MultipartFile image,
+            final byte[] contentHash) {
+
+        if (contentHash == null) {
+            throw new TkNullArgumentException("contentHash");
+        }
+
+        return HexFormat.of().formatHex(contentHash) + "." + getImageExtension(image);
+    }
+
+    private static String getImageExtension(final MultipartFile image) {
+
         if (image == null) {
             throw new TkNullArgumentException("image");
         }
@@ -209,48 +633,169 @@ public class ResourceService {
             throw new TkUnsupportedMediaTypeException("unknown");
         }
 
-        final String ext = contentType.substring(contentType.lastIndexOf('/') + 1);
-        return UUID.randomUUID().toString() + "." + ext;
+        return contentType.substring(contentType.lastIndexOf('/') + 1);
     }
 
-    private String saveImageFile(final String verb, final MultipartFile image,
-            final ImageProcessingProperties processingProperties) {
+    private String saveImageFile(final String verb, final String type,
+            final MultipartFile image, final ImageProcessingProperties processingProperties) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         validateImage(verb, image, processingProperties);
 
-        final String fileName = getImageUniqueFileName(image);
-        final Path path = Path.of(processingProperties.storagePath(), fileName);
+        // Upload goes to a temporary file first: content-addressed name is known
+        // only when the whole stream has been hashed.
+        final Path directory = Path.of(processingProperties.storagePath());
+        Path tempPath = null;
+        String fileName = null;
+        Path path = null;
+        boolean isNewContent = true;
+        long size = 0;
         try {
-            Files.createDirectories(path.getParent());
-            Files.deleteIfExists(path);
-            try (
-                    InputStream is = image.getInputStream();
-                    OutputStream os = Files.newOutputStream(path, CREATE_NEW);
-                    BufferedInputStream bis =
-                            new BufferedInputStream(is, processingProperties.ioBufferSize());
-                    BufferedOutputStream bos =
-                            new BufferedOutputStream(os, processingProperties.ioBufferSize())) {
-                bis.transferTo(bos);
+            Files.createDirectories(directory);
+            tempPath = Files.createTempFile(directory, TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX);
+
+            final MessageDigest digest = MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+            size = transferTo(image, tempPath, digest);
+            meterRegistry.counter(METRIC_UPLOAD_BYTES, TAG_TYPE, type).increment(size);
+
+            fileName = processingProperties.contentAddressed()
+                    ? getImageContentFileName(image, digest.digest())
+                    : getImageUniqueFileName(image);
+            path = getShardedPath(processingProperties, fileName);
+
+            if (processingProperties.contentAddressed()
+                    && Files.exists(getStoragePath(processingProperties, fileName))) {
+                // Same content is already stored: new DB row just references it.
+                // Upload stays as a spare until the reference is taken.
+                isNewContent = false;
+                spareFiles.put(path, new SpareFile(tempPath, image.getContentType()));
+            } else {
+                Files.createDirectories(path.getParent());
+                Files.move(tempPath, path, ATOMIC_MOVE, REPLACE_EXISTING);
             }
+        } catch (TkServiceBusyException e) {
+            deleteTempFile(tempPath);
+            throw e;
         } catch (Exception e) {
-            throw new TkSavingMediaException(path.toString());
+            deleteTempFile(tempPath);
+            throw new TkSavingMediaException(
+                    path == null ? directory.toString() : path.toString());
+        }
+
+        if (isNewContent) {
+            meterRegistry.counter(METRIC_STORED_BYTES, TAG_TYPE, type).increment(size);
+            imageRenditionService.createRenditions(path, image.getContentType());
         }
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
         return fileName;
     }
 
+    /**
+     * Copy uploaded image into file through pooled buffer, updating digest on the way.
+     * 
+     * @return Count of copied bytes.
+     */
+    private long transferTo(final MultipartFile image, final Path path,
+            final MessageDigest digest) throws IOException {
+
+        final ByteBuffer buffer = ioBufferPool.acquire();
+        long size = 0;
+        try (
+                ReadableByteChannel in = Channels.newChannel(image.getInputStream());
+                FileChannel out = FileChannel.open(path, WRITE, TRUNCATE_EXISTING)) {
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                size += buffer.remaining();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            return size;
+        } finally {
+            ioBufferPool.release(buffer);
+        }
+    }
+
+    private void deleteTempFile(final Path tempPath) {
+
+        if (tempPath != null) {
+            try {
+                Files.deleteIfExists(tempPath);
+            } catch (Exception ex) {
+                LogEx.error(log, LogEx.THIS_METHOD, ex);
+            }
+        }
+    }
+
+    private boolean restoreImageFile(final ImageProcessingProperties properties,
+            final String fileName) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        if (fileName == null || fileName.isBlank()) {
+            return false;
+        }
+
+        final Path path = getShardedPath(properties, fileName);
+        final SpareFile spare = spareFiles.asMap().remove(path);
+        if (spare == null) {
+            return false;
+        }
+
+        try {
+            Files.createDirectories(path.getParent());
+            Files.move(spare.path(), path, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (Exception ex) {
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
+            deleteTempFile(spare.path());
+            return false;
+        }
+        imageRenditionService.createRenditions(path, spare.mediatype());
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
+        return true;
+    }
+
+    /**
+     * Put the spare copy of an upload in place of stored avatar file that has gone.
+     * 
+     * Called under the advisory lock of the file name.
+     * 
+     * @param fileName File name.
+     * @return True if restored, false if there is no spare copy.
+     */
+    public boolean restoreAvatarFile(final String fileName) {
+
+        return restoreImageFile(avatarImageProcessing, fileName);
+    }
+
+    /**
+     * Put the spare copy of an upload in place of stored ad image file that has gone.
+     * 
+     * Called under the advisory lock of the file name.
+     * 
+     * @param fileName File name.
+     * @return True if restored, false if there is no spare copy.
+     */
+    public boolean restoreAdImageFile(final String fileName) {
+
+        return restoreImageFile(adImageProcessing, fileName);
+    }
+
     /**
      * Save avatar file.
      * 
      * @param image Uploaded image.
      * @return Filename.
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public String saveAvatarFile(final MultipartFile image) {
 
-        return saveImageFile("avatar", image, avatarImageProcessing);
+        return saveImageFile("avatar", TYPE_AVATAR, image, avatarImageProcessing);
     }
 
     /**
@@ -259,26 +804,31 @@ public class ResourceService {
      * @param image Uploaded image.
      * @return Filename.
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public String saveAdImageFile(final MultipartFile image) {
 
-        return saveImageFile("ad image", image, adImageProcessing);
+        return saveImageFile("ad image", TYPE_AD, image, adImageProcessing);
     }
 
     private void deleteImageFile(final String fileName,
             final ImageProcessingProperties properties) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         if (fileName != null && !fileName.isBlank()) {
             try {
-                final Path path = Path.of(properties.storagePath(), fileName);
-                Files.deleteIfExists(path);
+                // Both layouts: file may not have been migrated yet.
+                for (Path path : List.of(getShardedPath(properties, fileName),
+                        Path.of(properties.storagePath(), fileName))) {
+                    imageRenditionService.deleteRenditions(path);
+                    Files.deleteIfExists(path);
+                }
             } catch (Exception ex) {
                 throw new TkDeletingMediaException(fileName);
             }
         }
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPED);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
     }
 
     /**
@@ -286,6 +836,7 @@ public class ResourceService {
      * 
      * @param fileName File name.
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public void deleteAvatarImageFile(final String fileName) {
 
         deleteImageFile(fileName, avatarImageProcessing);
@@ -296,8 +847,79 @@ public class ResourceService {
      * 
      * @param fileName File name.
      */
+    @Timed(MetricsConfig.SERVICE_TIMER)
     public void deleteAdImageFile(final String fileName) {
 
         deleteImageFile(fileName, adImageProcessing);
     }
+
+    private int migrateStorageDirectory(final ImageProcessingProperties properties,
+            final int batchSize) throws IOException {
+
+        final Path directory = Path.of(properties.storagePath());
+        if (properties.shardDepth() <= 0 || !Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        int moved = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                path -> Files.isRegularFile(path)
+                        && !path.getFileName().toString().startsWith(TEMP_FILE_PREFIX))) {
+            for (Path flat : stream) {
+                if (moved >= batchSize) {
+                    break;
+                }
+
+                // Renditions share the prefix of original, so they land next to it.
+                final Path sharded = getShardedPath(properties, flat.getFileName().toString());
+                if (Files.exists(sharded)) {
+                    // Same content has been uploaded into sharded layout meanwhile: stored names
+                    // are content hashes or UUIDs, so the flat copy is a duplicate.
+                    Files.deleteIfExists(flat);
+                    continue;
+                }
+
+                Files.createDirectories(sharded.getParent());
+                try {
+                    // Atomic rename replaces a file stored concurrently, which has the same
+                    // content, so readers never see a partial file.
+                    Files.move(flat, sharded, ATOMIC_MOVE);
+                    moved++;
+                } catch (NoSuchFileException ex) {
+                    // Deleted meanwhile.
+                }
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Move a batch of files from flat storage directories into sharded layout.
+     * 
+     * Online: files are moved atomically one by one and readers fall back to flat layout, so
+     * it can be repeated until nothing is left to move.
+     * 
+     * @param batchSize Maximum count of files to move in each storage.
+     * @return Count of moved files.
+     * @throws TkSavingMediaException If moving failed.
+     */
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public int migrateStorage(final int batchSize) {
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
+
+        int moved = 0;
+        for (ImageProcessingProperties properties : List.of(avatarImageProcessing,
+                adImageProcessing)) {
+            try {
+                moved += migrateStorageDirectory(properties, batchSize);
+            } catch (IOException ex) {
+                LogEx.error(log, LogEx.THIS_METHOD, ex);
+                throw new TkSavingMediaException(properties.storagePath());
+            }
+        }
+
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
+        return moved;
+    }
 }
@@ -2,6 +2,8 @@ package ru.spb.tksoft.ads.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -12,9 +14,12 @@ import org.springframework.web.multipart.MultipartFile;
 import lombok.RequiredArgsConstructor;
 import ru.spb.tksoft.ads.dto.request.NewPasswordRequestDto;
 import ru.spb.tksoft.ads.dto.request.UpdateUserRequestDto;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
 import ru.spb.tksoft.ads.dto.response.UpdateUserResponseDto;
 import ru.spb.tksoft.ads.entity.AvatarEntity;
 import ru.spb.tksoft.ads.entity.UserEntity;
+import ru.spb.tksoft.ads.enumeration.CacheEvictionReason;
+import ru.spb.tksoft.ads.enumeration.ImageRendition;
 import ru.spb.tksoft.ads.exception.TkNullArgumentException;
 import ru.spb.tksoft.ads.exception.TkUserNotFoundException;
 import ru.spb.tksoft.ads.mapper.UserMapper;
@@ -36,7 +41,9 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
 
     private final UserServiceCached userServiceCached;
+    private final AdServiceCached adServiceCached;
     private final ResourceService resourceService;
+    private final ImageReferenceService imageReferenceService;
 
     /**
      * Create user.
@@ -46,7 +53,7 @@ public class UserService {
     @Transactional
     public void createUser(final UserEntity newUser) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         if (newUser == null) {
             throw new TkNullArgumentException("newUser");
@@ -63,7 +70,7 @@ public class UserService {
                 });
 
         userRepository.save(newUser);
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPED);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
     }
 
     /**
@@ -76,7 +83,7 @@ public class UserService {
     public void setPassword(final UserDetails userDetails,
             final NewPasswordRequestDto newPasswordRequest) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         if (userDetails == null) {
             throw new TkNullArgumentException("userDetails");
@@ -92,7 +99,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPasswordRequest.getNewPassword()));
 
         userServiceCached.clearCaches();
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPED);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPED);
     }
 
     /**
@@ -106,7 +113,7 @@ public class UserService {
     public UpdateUserResponseDto updateUser(final String userName,
             final UpdateUserRequestDto updateRequest) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         if (userName == null) {
             throw new TkNullArgumentException("userName");
@@ -123,9 +130,20 @@ public class UserService {
         user.setLastName(updateRequest.getLastName());
         user.setPhone(updateRequest.getPhone());
 
+        // Ads and comments show author's name and phone: evicted once the change is visible.
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            adServiceCached.evictUserProfile(CacheEvictionReason.USER_UPDATED);
+                        }
+                    }
+                });
+
         userServiceCached.clearCaches();
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
         return UserMapper.toDto(updateRequest);
     }
 
@@ -165,12 +183,14 @@ public class UserService {
                         @Override
                         public void afterCompletion(int status) {
                             if (status == STATUS_COMMITTED) {
-                                resourceService.deleteAvatarImageFile(oldFileName);
+                                imageReferenceService.releaseAvatarFile(oldFileName);
                             }
                         }
                     });
         }
 
+        imageReferenceService.acquireAvatarFile(newFileName);
+
         avatar = avatar != null ? avatar : new AvatarEntity();
         avatar.setName(newFileName);
         avatar.setSize((int) newFileSize);
@@ -183,12 +203,27 @@ public class UserService {
     }
 
     /**
-     * Delete avatar file.
+     * Delete avatar file if no user references it.
      * 
      * @param fileName Filename.
      */
     public void deleteAvatarFile(final String fileName) {
 
-        resourceService.deleteAvatarImageFile(fileName);
+        imageReferenceService.releaseAvatarFile(fileName);
+    }
+
+    /**
+     * Get avatar by user ID.
+     * 
+     * @param userId User ID.
+     * @param rendition Image rendition, null for original.
+     * @param version Image version from URL, null if absent.
+     * @return Image resource.
+     */
+    public ResponseEntity<Resource> getAvatar(final Long userId,
+            final ImageRendition rendition, final String version) {
+
+        final ImageFileDto file = userServiceCached.getAvatarFile(userId);
+        return resourceService.getAvatarImage(file, rendition, version);
     }
 }
@@ -1,26 +1,22 @@
 package ru.spb.tksoft.ads.service;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.core.io.PathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import ru.spb.tksoft.ads.config.MetricsConfig;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
 import ru.spb.tksoft.ads.dto.response.UserResponseDto;
-import ru.spb.tksoft.ads.entity.AvatarEntity;
 import ru.spb.tksoft.ads.entity.UserEntity;
 import ru.spb.tksoft.ads.exception.TkNullArgumentException;
 import ru.spb.tksoft.ads.exception.TkUserNotFoundException;
 import ru.spb.tksoft.ads.mapper.UserMapper;
+import ru.spb.tksoft.ads.repository.AvatarRepository;
 import ru.spb.tksoft.ads.repository.UserRepository;
-import ru.spb.tksoft.utils.log.LogEx;
 
 /**
  * User service, cached methods.
@@ -29,11 +25,13 @@ import ru.spb.tksoft.utils.log.LogEx;
  */
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserServiceCached {
 
     private final Logger log = LoggerFactory.getLogger(UserServiceCached.class);
 
     private final UserRepository userRepository;
+    private final AvatarRepository avatarRepository;
     private final ResourceService resourceService;
 
     private final CacheManager cacheManager;
@@ -73,6 +71,8 @@ public class UserServiceCached {
     /**
      * Get UserEntity by name lazily.
      * 
+     * The near cache hands out the same detached instance to every caller: read only.
+     * 
      * @param userName Name.
      * @return UserEntity.
      * @throws TkNullArgumentException If userName is null.
@@ -107,39 +107,21 @@ public class UserServiceCached {
     }
 
     /**
-     * Get avatar by user ID.
+     * Get stored avatar file by user ID.
      * 
      * @param userId User ID.
-     * @return Image resource.
+     * @return Avatar file DTO, with null name if user has no avatar.
+     * @throws TkUserNotFoundException If user not found.
      */
-    //@Cacheable(value = "getAvatar", key = "#userId")
-    public ResponseEntity<Resource> getAvatar(final Long userId) {
-
-        UserEntity user = userRepository.findOneByIdEager(userId)
-                .orElseThrow(() -> new TkUserNotFoundException(
-                        userId.toString(), false));
-
-        AvatarEntity avatar = user.getAvatar();
-        if (avatar == null) {
-            return resourceService.getDefaultAvatar();
-        }
-
-        String filename = avatar.getName();
-        if (filename.isBlank()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        Path filePath = resourceService.getAvatarImagePath(filename);
-        if (!Files.exists(filePath)) {
-            LogEx.error(log, LogEx.getThisMethodName(),
-                    "User " + userId + ": " + "avatar file \"" + filename + "\" not found");
-            return resourceService.getDefaultAvatar();
-        }
-
-        Resource resource = new PathResource(filePath);
-        MediaType mediaType = MediaType.parseMediaType(avatar.getMediatype());
-        return ResponseEntity.ok()
-                .contentType(mediaType)
-                .body(resource);
+    @Cacheable(value = "getAvatar", key = "#userId")
+    public ImageFileDto getAvatarFile(final Long userId) {
+
+        return avatarRepository.findOneFileByUserId(userId)
+                .orElseGet(() -> {
+                    if (!userRepository.existsById(userId)) {
+                        throw new TkUserNotFoundException(userId.toString(), false);
+                    }
+                    return new ImageFileDto(null, null);
+                });
     }
 }
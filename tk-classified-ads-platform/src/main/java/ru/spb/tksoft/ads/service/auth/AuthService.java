@@ -1,5 +1,6 @@
 package ru.spb.tksoft.ads.service.auth;
 
+import java.util.Optional;
 import ru.spb.tksoft.ads.dto.request.RegisterRequestDto;
 
 /**
@@ -14,9 +15,9 @@ public interface AuthService {
      * 
      * @param userName User name
      * @param password Password
-     * @return True if login was successful
+     * @return Access token if login was successful
      */
-    boolean login(String userName, String password);
+    Optional<String> login(String userName, String password);
 
     /**
      * Register user.
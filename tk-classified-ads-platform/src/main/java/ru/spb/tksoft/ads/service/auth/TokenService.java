@@ -0,0 +1,34 @@
+package ru.spb.tksoft.ads.service.auth;
+
+import java.util.Optional;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Access token service interface.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public interface TokenService {
+
+    /**
+     * Issue access token.
+     * 
+     * @param userName User name.
+     * @param role User role name.
+     * @return Token.
+     */
+    String createToken(String userName, String role);
+
+    /**
+     * @return Token lifetime, seconds.
+     */
+    long getTokenTtlSeconds();
+
+    /**
+     * Verify token and restore the principal from its claims, no storage access.
+     * 
+     * @param token Token.
+     * @return UserDetails with empty password, empty if token is invalid or expired.
+     */
+    Optional<UserDetails> parseToken(String token);
+}
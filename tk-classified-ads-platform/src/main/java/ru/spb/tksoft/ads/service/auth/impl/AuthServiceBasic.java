@@ -1,5 +1,6 @@
 package ru.spb.tksoft.ads.service.auth.impl;
 
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -8,11 +9,13 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import ru.spb.tksoft.ads.dto.request.RegisterRequestDto;
 import ru.spb.tksoft.ads.entity.UserEntity;
+import ru.spb.tksoft.ads.enumeration.UserRole;
 import ru.spb.tksoft.ads.exception.TkUserExistsException;
 import ru.spb.tksoft.ads.mapper.UserMapper;
 import ru.spb.tksoft.ads.service.UserService;
 import ru.spb.tksoft.ads.service.UserServiceCached;
 import ru.spb.tksoft.ads.service.auth.AuthService;
+import ru.spb.tksoft.ads.service.auth.TokenService;
 import ru.spb.tksoft.utils.log.LogEx;
 
 /**
@@ -31,10 +34,13 @@ public class AuthServiceBasic implements AuthService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final TokenService tokenService;
+
     /**
      * {@inheritDoc}
      * 
-     * Creates a new user if it does not exist.
+     * Creates a new user if it does not exist. Only USER role may be chosen by the client:
+     * DEALER and ADMIN are assigned server-side.
      * 
      * @param registerRequest RegisterRequestDto object with user credentials.
      * @return true if the user is successfully created, false otherwise.
@@ -43,9 +49,16 @@ public class AuthServiceBasic implements AuthService {
     @Transactional
     public boolean register(final RegisterRequestDto registerRequest) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         final String userName = registerRequest.getUsername();
+        if (registerRequest.getRole() != UserRole.USER) {
+            LogEx.warn(log, LogEx.THIS_METHOD,
+                    "Self-registration with role %s refused: %s", registerRequest.getRole(),
+                    userName);
+            return false;
+        }
+
         try {
             boolean exists = userServiceCached.existsByName(userName);
             if (exists) {
@@ -59,43 +72,47 @@ public class AuthServiceBasic implements AuthService {
             userService.createUser(newUser);
 
         } catch (Exception ex) {
-            LogEx.error(log, LogEx.getThisMethodName(), ex);
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
             return false;
         }
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
         return true;
     }
 
     /**
      * {@inheritDoc}
      * 
-     * All this logic is just for demonstration purposes: returns true anyway because we already
-     * logged in via basic auth. See loadUserByUsername()
+     * The only place where the password is verified for bearer clients: further requests carry
+     * the token and are authenticated by signature. Basic authentication still works.
      * 
      * @param userName User name.
      * @param passwordRaw Raw password.
      */
     @Override
-    public boolean login(final String userName, final String passwordRaw) {
+    public Optional<String> login(final String userName, final String passwordRaw) {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
+        final String token;
         try {
             UserEntity user = userServiceCached.getUserEntityLazy(userName);
             if (!passwordEncoder.matches(passwordRaw, user.getPassword())) {
 
                 // We don't want to explain the reason to the user, but log it.
-                LogEx.warn(log, LogEx.getThisMethodName(),
+                LogEx.warn(log, LogEx.THIS_METHOD,
                         "User with given credentials not exists: %s", userName);
-                return false;
+                return Optional.empty();
             }
+
+            token = tokenService.createToken(user.getName(), user.getRole().name());
+
         } catch (Exception ex) { // Unexpected exception only.
-            LogEx.error(log, LogEx.getThisMethodName(), ex);
-            return false;
+            LogEx.error(log, LogEx.THIS_METHOD, ex);
+            return Optional.empty();
         }
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPING);
-        return true;
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
+        return Optional.of(token);
     }
 }
@@ -0,0 +1,103 @@
+package ru.spb.tksoft.ads.service.auth.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import javax.crypto.SecretKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import ru.spb.tksoft.ads.config.JwtValuesConfig;
+import ru.spb.tksoft.ads.service.auth.TokenService;
+import ru.spb.tksoft.utils.log.LogEx;
+
+/**
+ * Access token service, JWT signed with HMAC-SHA.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Service
+public class TokenServiceJwt implements TokenService {
+
+    private static final String CLAIM_ROLE = "role";
+
+    private final Logger log = LoggerFactory.getLogger(TokenServiceJwt.class);
+
+    private final SecretKey key;
+    private final String issuer;
+    private final Duration ttl;
+
+    private final JwtParser parser;
+
+    /**
+     * Constructor.
+     * 
+     * @param values JWT properties.
+     */
+    public TokenServiceJwt(final JwtValuesConfig values) {
+
+        if (values.getSecret() == null || values.getSecret().isBlank()) {
+            throw new IllegalStateException("jwt.secret is not set: define JWT_SECRET");
+        }
+
+        key = Keys.hmacShaKeyFor(values.getSecret().getBytes(StandardCharsets.UTF_8));
+        issuer = values.getIssuer();
+        ttl = Duration.ofMinutes(values.getTtlMinutes());
+
+        parser = Jwts.parser()
+                .verifyWith(key)
+                .requireIssuer(issuer)
+                .build();
+    }
+
+    @Override
+    public String createToken(final String userName, final String role) {
+
+        final Instant now = Instant.now();
+        return Jwts.builder()
+                .issuer(issuer)
+                .subject(userName)
+                .claim(CLAIM_ROLE, role)
+                .issuedAt(Date.from(now))
+                .expiration(Date.from(now.plus(ttl)))
+                .signWith(key)
+                .compact();
+    }
+
+    @Override
+    public long getTokenTtlSeconds() {
+        return ttl.toSeconds();
+    }
+
+    @Override
+    public Optional<UserDetails> parseToken(final String token) {
+
+        try {
+            final Claims claims = parser.parseSignedClaims(token).getPayload();
+
+            final String role = claims.get(CLAIM_ROLE, String.class);
+            if (claims.getSubject() == null || role == null) {
+                return Optional.empty();
+            }
+
+            return Optional.of(User.builder()
+                    .username(claims.getSubject())
+                    .password("")
+                    .roles(role)
+                    .build());
+
+        } catch (JwtException | IllegalArgumentException ex) {
+            LogEx.debug(log, LogEx.THIS_METHOD, "Invalid token", ex.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -37,11 +37,11 @@ public class UserDetailsServiceBasic implements UserDetailsService {
     @NotNull
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STARTING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING);
 
         UserEntity user = userServiceCached.getUserEntityLazy(userName);
 
-        LogEx.trace(log, LogEx.getThisMethodName(), LogEx.STOPPING);
+        LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STOPPING);
         return User.builder()
                 .username(user.getName())
                 .password(user.getPassword())
@@ -0,0 +1,33 @@
+-- liquibase formatted sql
+
+-- Notes:
+-- Naming convention - see SQL Style Guide: snake_case, lowercase.
+
+-- Notes for ID sequences:
+-- identity columns are replaced with sequences incremented by 50, the allocation size of
+-- entity ID generators: one "nextval" gives the application a block of 50 IDs, so inserts
+-- can be batched. Sequence value is the upper end of the block; it starts past existing IDs.
+
+-- changeSet kostusonline:ab2e7995-0afb-5931-b9d9-85f7a802d0ae runOnChange:true
+ALTER TABLE "user" ALTER COLUMN "id" DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS "user_id_seq" INCREMENT BY 50 OWNED BY "user"."id";
+SELECT setval('"user_id_seq"', COALESCE(MAX("id"), 0) + 50, false) FROM "user";
+ALTER TABLE "user" ALTER COLUMN "id" SET DEFAULT nextval('"user_id_seq"');
+
+-- changeSet kostusonline:45622183-86fb-5185-a5ee-8d2b6dd843c5 runOnChange:true
+ALTER TABLE "ad" ALTER COLUMN "id" DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS "ad_id_seq" INCREMENT BY 50 OWNED BY "ad"."id";
+SELECT setval('"ad_id_seq"', COALESCE(MAX("id"), 0) + 50, false) FROM "ad";
+ALTER TABLE "ad" ALTER COLUMN "id" SET DEFAULT nextval('"ad_id_seq"');
+
+-- changeSet kostusonline:d38e6ad5-628d-516e-9e68-755102302a4b runOnChange:true
+ALTER TABLE "comment" ALTER COLUMN "id" DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS "comment_id_seq" INCREMENT BY 50 OWNED BY "comment"."id";
+SELECT setval('"comment_id_seq"', COALESCE(MAX("id"), 0) + 50, false) FROM "comment";
+ALTER TABLE "comment" ALTER COLUMN "id" SET DEFAULT nextval('"comment_id_seq"');
+
+-- changeSet kostusonline:941a10df-1481-5d3e-9061-1cd648ec9e93 runOnChange:true
+ALTER TABLE "avatar" ALTER COLUMN "id" DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS "avatar_id_seq" INCREMENT BY 50 OWNED BY "avatar"."id";
+SELECT setval('"avatar_id_seq"', COALESCE(MAX("id"), 0) + 50, false) FROM "avatar";
+ALTER TABLE "avatar" ALTER COLUMN "id" SET DEFAULT nextval('"avatar_id_seq"');
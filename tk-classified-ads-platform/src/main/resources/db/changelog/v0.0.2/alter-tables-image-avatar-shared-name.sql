@@ -0,0 +1,16 @@
+-- liquibase formatted sql
+
+-- Notes:
+-- Naming convention - see SQL Style Guide: snake_case, lowercase.
+
+-- Notes for "image" and "avatar" tables:
+-- stored files are content-addressed, so one file name may be referenced by several rows;
+-- rows referencing a name are its reference count, the file is deleted with the last one.
+
+-- changeSet kostusonline:3c9a1f6e-5b2d-5e47-9a8c-0d4e6f71b2a3 runOnChange:true
+ALTER TABLE "image" DROP CONSTRAINT IF EXISTS "image_name_key";
+CREATE INDEX IF NOT EXISTS "idx_image_name" ON "image" ("name");
+
+-- changeSet kostusonline:9e1b7d24-6f3a-5c80-b5d9-41a2c8e06f57 runOnChange:true
+ALTER TABLE "avatar" DROP CONSTRAINT IF EXISTS "avatar_name_key";
+CREATE INDEX IF NOT EXISTS "idx_avatar_name" ON "avatar" ("name");
@@ -0,0 +1,17 @@
+-- liquibase formatted sql
+
+-- Notes:
+-- Naming convention - see SQL Style Guide: snake_case, lowercase.
+
+-- Notes for "image" table:
+-- image shares primary key with its ad: "ad_id" is the primary key, own "id" is dropped;
+-- image is deleted with its ad, as comments are.
+
+-- changeSet kostusonline:8d7e2a07-def7-54b4-a493-b85190d3dec0 runOnChange:true
+ALTER TABLE "image" DROP COLUMN IF EXISTS "id";
+ALTER TABLE "image" DROP CONSTRAINT IF EXISTS "image_ad_id_key";
+ALTER TABLE "image" ADD CONSTRAINT "image_pkey" PRIMARY KEY ("ad_id");
+
+ALTER TABLE "image" DROP CONSTRAINT IF EXISTS "image_ad_id_fkey";
+ALTER TABLE "image" ADD CONSTRAINT "image_ad_id_fkey"
+    FOREIGN KEY ("ad_id") REFERENCES "ad" ("id") ON DELETE CASCADE;
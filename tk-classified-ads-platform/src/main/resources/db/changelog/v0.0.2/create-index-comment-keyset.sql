@@ -0,0 +1,13 @@
+-- liquibase formatted sql
+
+-- Notes:
+-- Naming convention - see SQL Style Guide: snake_case, lowercase.
+
+-- Notes for "comment" keyset index:
+-- comments page is "WHERE ad_id = :adId AND (created_at, id) < (:cursor)
+-- ORDER BY created_at DESC, id DESC LIMIT n";
+-- page is read in index order, no sort.
+
+-- changeSet kostusonline:3f1d8c52-9a6e-5b0f-8e47-2c6a1b9d7e35 runOnChange:true
+CREATE INDEX IF NOT EXISTS "idx_comment_ad_id_created_at" ON "comment"
+    ("ad_id", "created_at" DESC, "id" DESC);
@@ -0,0 +1,18 @@
+-- liquibase formatted sql
+
+-- Notes:
+-- Naming convention - see SQL Style Guide: snake_case, lowercase.
+
+-- Notes for foreign key indexes:
+-- "ad"."user_id" - ads of a user, user deletion checks;
+-- "comment"."user_id" - user deletion checks;
+-- "comment"."ad_id" is the leading column of "idx_comment_ad_id_created_at",
+-- it serves comments of an ad and cascade deletion from "ad".
+-- Indexes are built concurrently: tables are not locked for writes,
+-- CONCURRENTLY cannot run inside a transaction, one index per changeset.
+
+-- changeSet kostusonline:0a7cdf5e-91a0-54ab-9909-a760b8bc92c3 runOnChange:true runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS "idx_ad_user_id" ON "ad" ("user_id");
+
+-- changeSet kostusonline:34a13b90-9ef0-5cb6-9f28-85af717a47e2 runOnChange:true runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS "idx_comment_user_id" ON "comment" ("user_id");
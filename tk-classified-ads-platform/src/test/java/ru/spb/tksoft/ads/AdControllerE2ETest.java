@@ -1,14 +1,31 @@
 package ru.spb.tksoft.ads;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.imageio.ImageIO;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -16,15 +33,41 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.LinkedMultiValueMap;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.spb.tksoft.ads.cache.TwoTierCacheManager;
+import ru.spb.tksoft.ads.config.BulkValuesConfig;
+import ru.spb.tksoft.ads.config.MaintenanceValuesConfig;
+import ru.spb.tksoft.ads.config.MetricsConfig;
+import ru.spb.tksoft.ads.config.PagingValuesConfig;
+import ru.spb.tksoft.ads.dto.request.AdImportItemDto;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateAdRequestDto;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateCommentRequestDto;
+import ru.spb.tksoft.ads.dto.request.UpdateUserRequestDto;
 import ru.spb.tksoft.ads.dto.response.AdExtendedResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdFullResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdImportJobResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdResponseDto;
 import ru.spb.tksoft.ads.dto.response.AdsArrayResponseDto;
+import ru.spb.tksoft.ads.enumeration.AdImportStatus;
+import ru.spb.tksoft.ads.enumeration.UserRole;
+import ru.spb.tksoft.ads.dto.response.AdsPageResponseDto;
 import ru.spb.tksoft.ads.dto.response.CommentResponseDto;
 import ru.spb.tksoft.ads.dto.response.CommentsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentsPageResponseDto;
+import ru.spb.tksoft.ads.dto.response.StorageMigrationResponseDto;
+import ru.spb.tksoft.ads.dto.response.UpdateUserResponseDto;
 import org.springframework.core.io.Resource;
 import org.springframework.util.MultiValueMap;
+import ru.spb.tksoft.ads.exception.TkInvalidParameterException;
+import ru.spb.tksoft.ads.io.ByteArrayMultipartFile;
+import ru.spb.tksoft.ads.service.AdImportService;
+import ru.spb.tksoft.ads.service.AdService;
+import ru.spb.tksoft.ads.service.ResourceService;
+import ru.spb.tksoft.common.controller.advice.AbstractBaseControllerAdvice;
+import ru.spb.tksoft.common.controller.dto.CommonErrorResponseDto;
 
 import static ru.spb.tksoft.utils.string.StringEx.r;
 
@@ -35,6 +78,27 @@ import static ru.spb.tksoft.utils.string.StringEx.r;
  */
 class AdControllerE2ETest extends E2ETestBase {
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MaintenanceValuesConfig maintenanceValuesConfig;
+
+    @Autowired
+    private BulkValuesConfig bulkValuesConfig;
+
+    @Autowired
+    private PagingValuesConfig pagingValuesConfig;
+
+    @Autowired
+    private AdService adService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
     @BeforeEach
     void setupEach() throws IOException {
 
@@ -229,6 +293,35 @@ class AdControllerE2ETest extends E2ETestBase {
         Assertions.assertEquals(HttpStatus.NOT_FOUND, getResponse.getStatusCode());
     }
 
+    @DisplayName("Delete ad without image - should evict cached ad info")
+    @Test
+    void removeAd_shouldEvictCachedAd_whenAdHasNoImage() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto createdAd = createAd(credentials);
+        imageRepository.deleteById(createdAd.getId());
+
+        // Warm the cache up.
+        ResponseEntity<AdExtendedResponseDto> cachedResponse = restTemplate.exchange(
+                r("{api}/ads/{id}", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers),
+                AdExtendedResponseDto.class);
+        Assertions.assertEquals(HttpStatus.OK, cachedResponse.getStatusCode());
+
+        ResponseEntity<Void> deleteResponse = restTemplate.exchange(
+                r("{api}/ads/{id}", api(), createdAd.getId()),
+                HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        Assertions.assertEquals(HttpStatus.NO_CONTENT, deleteResponse.getStatusCode());
+
+        ResponseEntity<AdExtendedResponseDto> getResponse = restTemplate.exchange(
+                r("{api}/ads/{id}", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers),
+                AdExtendedResponseDto.class);
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, getResponse.getStatusCode());
+    }
+
     @DisplayName("Get ad image - should return 200 when image exists")
     @Test
     void getAdImage_shouldReturnImage_whenExists() {
@@ -247,6 +340,138 @@ class AdControllerE2ETest extends E2ETestBase {
                 .getContentType().toString().startsWith("image/"));
     }
 
+    @DisplayName("Get full ad - should return ad with comments and reflect new comment")
+    @Test
+    void getAdFull_shouldReturnAdWithComments_andEvictOnNewComment() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto createdAd = createAd(credentials);
+
+        var comment1 = new CreateOrUpdateCommentRequestDto("Comment 1");
+        restTemplate.exchange(r("{api}/ads/{id}/comments", api(), createdAd.getId()),
+                HttpMethod.POST, new HttpEntity<>(comment1, headers),
+                CommentResponseDto.class);
+
+        ResponseEntity<AdFullResponseDto> response = restTemplate.exchange(
+                r("{api}/ads/{id}/full", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdFullResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals(createdAd.getId(), response.getBody().getAd().getId());
+        Assertions.assertEquals("Test Ad", response.getBody().getAd().getTitle());
+        Assertions.assertEquals(1, response.getBody().getComments().getCount());
+
+        // Cached page must be evicted by a new comment.
+        var comment2 = new CreateOrUpdateCommentRequestDto("Comment 2");
+        restTemplate.exchange(r("{api}/ads/{id}/comments", api(), createdAd.getId()),
+                HttpMethod.POST, new HttpEntity<>(comment2, headers),
+                CommentResponseDto.class);
+
+        response = restTemplate.exchange(
+                r("{api}/ads/{id}/full", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdFullResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals(2, response.getBody().getComments().getCount());
+        Assertions.assertNull(response.getBody().getComments().getNext());
+    }
+
+    @DisplayName("Get full ad - should reflect author's profile update")
+    @Test
+    void getAdFull_shouldReflectAuthorName_whenProfileUpdated() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto createdAd = createAd(credentials);
+        restTemplate.exchange(r("{api}/ads/{id}/comments", api(), createdAd.getId()),
+                HttpMethod.POST,
+                new HttpEntity<>(new CreateOrUpdateCommentRequestDto("Comment 1"), headers),
+                CommentResponseDto.class);
+
+        // Cached with the old name.
+        ResponseEntity<AdFullResponseDto> response = restTemplate.exchange(
+                r("{api}/ads/{id}/full", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdFullResponseDto.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+
+        ResponseEntity<UpdateUserResponseDto> updateResponse = restTemplate.exchange(
+                r("{api}/users/me", api()),
+                HttpMethod.PATCH,
+                new HttpEntity<>(new UpdateUserRequestDto("Alice", "Smith", "+79998887766"),
+                        headers),
+                UpdateUserResponseDto.class);
+        Assertions.assertEquals(HttpStatus.OK, updateResponse.getStatusCode());
+
+        response = restTemplate.exchange(
+                r("{api}/ads/{id}/full", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdFullResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals("Alice", response.getBody().getAd().getAuthorFirstName());
+        Assertions.assertEquals("+79998887766", response.getBody().getAd().getPhone());
+        Assertions.assertEquals("Alice",
+                response.getBody().getComments().getResults().get(0).getAuthorFirstName());
+    }
+
+    @DisplayName("Get full ad - should return first page of comments with cursor to the rest")
+    @Test
+    void getAdFull_shouldReturnFirstCommentsPage_whenMoreCommentsExist() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto createdAd = createAd(credentials);
+
+        final int pageSize = pagingValuesConfig.resolvePageSize(null);
+        for (int i = 0; i <= pageSize; i++) {
+            restTemplate.exchange(r("{api}/ads/{id}/comments", api(), createdAd.getId()),
+                    HttpMethod.POST,
+                    new HttpEntity<>(new CreateOrUpdateCommentRequestDto("Comment " + i),
+                            headers),
+                    CommentResponseDto.class);
+        }
+
+        ResponseEntity<AdFullResponseDto> response = restTemplate.exchange(
+                r("{api}/ads/{id}/full", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdFullResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals(pageSize, response.getBody().getComments().getCount());
+        Assertions.assertNotNull(response.getBody().getComments().getNext());
+
+        ResponseEntity<CommentsPageResponseDto> rest = restTemplate.exchange(
+                r("{api}/ads/{id}/comments/page?size={size}&cursor={cursor}", api(),
+                        createdAd.getId(), pageSize, response.getBody().getComments().getNext()),
+                HttpMethod.GET, new HttpEntity<>(headers), CommentsPageResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, rest.getStatusCode());
+        Assertions.assertNotNull(rest.getBody());
+        Assertions.assertEquals(1, rest.getBody().getCount());
+        Assertions.assertEquals("Comment 0", rest.getBody().getResults().getFirst().getText());
+        Assertions.assertNull(rest.getBody().getNext());
+    }
+
+    @DisplayName("Get full ad - should return 404 when ad does not exist")
+    @Test
+    void getAdFull_shouldReturn404_whenAdNotFound() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        ResponseEntity<CommonErrorResponseDto> response = restTemplate.exchange(
+                r("{api}/ads/{id}/full", api(), Long.MAX_VALUE),
+                HttpMethod.GET, new HttpEntity<>(headers), CommonErrorResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @DisplayName("Delete ad with comments - should return 204 when valid")
     @Test
     void removeAdWithComments_shouldReturn204_whenValidAdId() {
@@ -301,4 +526,691 @@ class AdControllerE2ETest extends E2ETestBase {
         Assertions.assertNotNull(response.getBody());
         Assertions.assertEquals(0, response.getBody().getCount());
     }
+
+    @DisplayName("Get ads page - should walk all ads newest first by cursor")
+    @Test
+    void getAdsPage_shouldReturnAllAdsByCursor_whenSeveralPages() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        List<Long> createdIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            createdIds.add(createAd(credentials).getId());
+        }
+
+        List<Long> pagedIds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String url = cursor == null
+                    ? r("{api}/ads/page?size={size}", api(), 2)
+                    : r("{api}/ads/page?size={size}&cursor={cursor}", api(), 2, cursor);
+
+            ResponseEntity<AdsPageResponseDto> response = restTemplate.exchange(
+                    url, HttpMethod.GET, new HttpEntity<>(headers),
+                    AdsPageResponseDto.class);
+
+            Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+            Assertions.assertNotNull(response.getBody());
+            Assertions.assertTrue(response.getBody().getCount() <= 2);
+
+            response.getBody().getResults().forEach(ad -> pagedIds.add(ad.getId()));
+            cursor = response.getBody().getNext();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(createdIds.reversed(), pagedIds);
+    }
+
+    @DisplayName("Get ads page - should return 400 when cursor is malformed")
+    @Test
+    void getAdsPage_shouldReturn400_whenCursorMalformed() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        ResponseEntity<CommonErrorResponseDto> response = restTemplate.exchange(
+                r("{api}/ads/page?cursor={cursor}", api(), "not-a-cursor"),
+                HttpMethod.GET, new HttpEntity<>(headers),
+                CommonErrorResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @DisplayName("Metrics - services should be timed, uploads and cache tiers counted")
+    @Test
+    void metrics_shouldRecordServiceTimersUploadBytesAndCacheGets() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto createdAd = createAd(credentials);
+        for (int i = 0; i < 2; i++) {
+            restTemplate.exchange(r("{api}/ads/{id}", api(), createdAd.getId()),
+                    HttpMethod.GET, new HttpEntity<>(headers), AdExtendedResponseDto.class);
+        }
+
+        Counter uploaded = meterRegistry.find(ResourceService.METRIC_UPLOAD_BYTES)
+                .tag(ResourceService.TAG_TYPE, ResourceService.TYPE_AD).counter();
+        Assertions.assertNotNull(uploaded);
+        Assertions.assertTrue(uploaded.count() >= testImageBytes.length);
+
+        Timer timer = meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tag("class", AdService.class.getName()).timer();
+        Assertions.assertNotNull(timer);
+        Assertions.assertTrue(timer.count() > 0);
+
+        Assertions.assertFalse(meterRegistry.find("cache.gets")
+                .tag(TwoTierCacheManager.TAG_TIER, TwoTierCacheManager.TIER_L1)
+                .meters().isEmpty());
+        Assertions.assertFalse(meterRegistry.find("cache.gets")
+                .tag(TwoTierCacheManager.TAG_TIER, TwoTierCacheManager.TIER_L2)
+                .meters().isEmpty());
+    }
+
+    @DisplayName("Get ads page - error should be compact problem detail with correlation ID")
+    @Test
+    void getAdsPage_shouldReturnProblemDetail_whenCursorMalformed() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        headers.set(AbstractBaseControllerAdvice.CORRELATION_ID_HEADER, "test-correlation-1");
+
+        @SuppressWarnings("rawtypes")
+        ResponseEntity<Map> response = restTemplate.exchange(
+                r("{api}/ads/page?cursor={cursor}", api(), "not-a-cursor"),
+                HttpMethod.GET, new HttpEntity<>(headers), Map.class);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertTrue(MediaType.APPLICATION_PROBLEM_JSON
+                .isCompatibleWith(response.getHeaders().getContentType()));
+        Assertions.assertEquals("test-correlation-1", response.getHeaders()
+                .getFirst(AbstractBaseControllerAdvice.CORRELATION_ID_HEADER));
+
+        Map<?, ?> body = response.getBody();
+        Assertions.assertNotNull(body);
+        Assertions.assertEquals(TkInvalidParameterException.CODE,
+                body.get(AbstractBaseControllerAdvice.CODE_PROPERTY));
+        Assertions.assertEquals("test-correlation-1",
+                body.get(AbstractBaseControllerAdvice.CORRELATION_ID_PROPERTY));
+        Assertions.assertFalse(body.containsKey("details"));
+    }
+
+    @DisplayName("Update ad - cached ad info and user ads should reflect update")
+    @Test
+    void updateAds_shouldEvictCachedEntries_whenAdUpdated() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        AdResponseDto createdAd = createAd(credentials);
+
+        // Warm up caches.
+        restTemplate.exchange(r("{api}/ads/{id}", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdExtendedResponseDto.class);
+        restTemplate.exchange(r("{api}/ads/me", api()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdsArrayResponseDto.class);
+
+        CreateOrUpdateAdRequestDto updateRequest = new CreateOrUpdateAdRequestDto(
+                "Updated Title",
+                2000,
+                "Updated description");
+
+        restTemplate.exchange(r("{api}/ads/{id}", api(), createdAd.getId()),
+                HttpMethod.PATCH, new HttpEntity<>(updateRequest, headers),
+                AdResponseDto.class);
+
+        ResponseEntity<AdExtendedResponseDto> infoResponse = restTemplate.exchange(
+                r("{api}/ads/{id}", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdExtendedResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, infoResponse.getStatusCode());
+        Assertions.assertNotNull(infoResponse.getBody());
+        Assertions.assertEquals("Updated Title", infoResponse.getBody().getTitle());
+        Assertions.assertEquals("Updated description", infoResponse.getBody().getDescription());
+
+        ResponseEntity<AdsArrayResponseDto> meResponse = restTemplate.exchange(
+                r("{api}/ads/me", api()),
+                HttpMethod.GET, new HttpEntity<>(headers), AdsArrayResponseDto.class);
+
+        Assertions.assertNotNull(meResponse.getBody());
+        Assertions.assertEquals(2000,
+                meResponse.getBody().getResults().iterator().next().getPrice());
+    }
+
+    @DisplayName("Get ad image rendition - should return smaller image than original")
+    @Test
+    void getAdImage_shouldReturnThumb_whenSizeThumb() {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        AdResponseDto createdAd = createAd(credentials);
+
+        ResponseEntity<byte[]> original = restTemplate.getForEntity(
+                r("{api}/ads/image/{id}", api(), createdAd.getId()), byte[].class);
+        ResponseEntity<byte[]> thumb = restTemplate.getForEntity(
+                r("{api}/ads/image/{id}?size=thumb", api(), createdAd.getId()), byte[].class);
+
+        Assertions.assertEquals(HttpStatus.OK, thumb.getStatusCode());
+        Assertions.assertNotNull(original.getBody());
+        Assertions.assertNotNull(thumb.getBody());
+        Assertions.assertTrue(thumb.getBody().length < original.getBody().length);
+        Assertions.assertEquals(original.getHeaders().getContentType(),
+                thumb.getHeaders().getContentType());
+    }
+
+    @DisplayName("Get ad image rendition - should return 400 when size is unknown")
+    @Test
+    void getAdImage_shouldReturn400_whenSizeUnknown() {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        AdResponseDto createdAd = createAd(credentials);
+
+        ResponseEntity<CommonErrorResponseDto> response = restTemplate.getForEntity(
+                r("{api}/ads/image/{id}?size=huge", api(), createdAd.getId()),
+                CommonErrorResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @DisplayName("Get ad image - versioned URL should be immutable and revalidate with 304")
+    @Test
+    void getAdImage_shouldReturnImmutableAnd304_whenVersionedAndETagMatches() {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        AdResponseDto createdAd = createAd(credentials);
+
+        ResponseEntity<byte[]> response = restTemplate.getForEntity(
+                api() + createdAd.getImageUrl(), byte[].class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getHeaders().getETag());
+        Assertions.assertTrue(response.getHeaders().getLastModified() > 0);
+        Assertions.assertTrue(response.getHeaders().getCacheControl().contains("immutable"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(response.getHeaders().getETag());
+
+        ResponseEntity<byte[]> notModified = restTemplate.exchange(
+                api() + createdAd.getImageUrl(),
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        Assertions.assertNull(notModified.getBody());
+    }
+
+    @DisplayName("Get ad image - should return 206 and requested bytes for Range request")
+    @Test
+    void getAdImage_shouldReturn206_whenRangeRequested() {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        AdResponseDto createdAd = createAd(credentials);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-99");
+
+        ResponseEntity<byte[]> response = restTemplate.exchange(
+                r("{api}/ads/image/{id}", api(), createdAd.getId()),
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+
+        Assertions.assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals(100, response.getBody().length);
+        Assertions.assertArrayEquals(Arrays.copyOf(testImageBytes, 100),
+                response.getBody());
+    }
+
+    @DisplayName("Delete ad - shared image file should stay until last ad referencing it is deleted")
+    @Test
+    void removeAd_shouldKeepSharedImage_whenAnotherAdReferencesIt() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto firstAd = createAd(credentials);
+        AdResponseDto secondAd = createAd(credentials);
+
+        // Same content is stored once.
+        List<String> names = imageRepository.findAll().stream()
+                .map(image -> image.getName())
+                .distinct()
+                .toList();
+        Assertions.assertEquals(1, names.size());
+        Assertions.assertEquals(2, imageRepository.countByName(names.getFirst()));
+
+        restTemplate.exchange(r("{api}/ads/{id}", api(), firstAd.getId()),
+                HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+
+        Assertions.assertTrue(Files.exists(resourceService.getAdImagePath(names.getFirst())));
+
+        ResponseEntity<byte[]> response = restTemplate.getForEntity(
+                r("{api}/ads/image/{id}", api(), secondAd.getId()), byte[].class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertArrayEquals(testImageBytes, response.getBody());
+
+        restTemplate.exchange(r("{api}/ads/{id}", api(), secondAd.getId()),
+                HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+
+        Assertions.assertFalse(Files.exists(resourceService.getAdImagePath(names.getFirst())));
+    }
+
+    @DisplayName("Create ad - deduplicated upload should survive release of the last reference")
+    @Test
+    void createAd_shouldRestoreSharedImage_whenLastReferenceReleasedAfterUpload() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto firstAd = createAd(credentials);
+
+        // Same content again: only a reference is going to be taken.
+        String name = resourceService.saveAdImageFile(new ByteArrayMultipartFile(
+                TEST_IMAGE, MediaType.IMAGE_JPEG_VALUE, testImageBytes));
+        Assertions.assertEquals(imageRepository.findAll().getFirst().getName(), name);
+
+        // The last reference goes before it is taken.
+        restTemplate.exchange(r("{api}/ads/{id}", api(), firstAd.getId()),
+                HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+        Assertions.assertFalse(Files.exists(resourceService.getAdImagePath(name)));
+
+        adService.saveAdEntity(adService.createAdEntity(credentials.name(),
+                new CreateOrUpdateAdRequestDto("Test Ad", 1000, "Test description")),
+                name, testImageBytes.length, MediaType.IMAGE_JPEG_VALUE);
+
+        Assertions.assertTrue(Files.exists(resourceService.getAdImagePath(name)));
+        Assertions.assertEquals(1, imageRepository.countByName(name));
+    }
+
+    @DisplayName("Migrate image storage - should move flat files into sharded layout")
+    @Test
+    void migrateImageStorage_shouldMoveFlatFiles_whenFlatFilesExist() throws IOException {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        AdResponseDto createdAd = createAd(credentials);
+        String name = imageRepository.findAll().getFirst().getName();
+
+        // New uploads go into sharded layout.
+        Path sharded = resourceService.getAdImagePath(name);
+        Assertions.assertNotEquals(resourceService.getImagesDirectory(), sharded.getParent());
+
+        // Simulate a file stored before sharding.
+        Path flat = resourceService.getImagesDirectory().resolve(name);
+        Files.move(sharded, flat);
+        Assertions.assertEquals(flat, resourceService.getAdImagePath(name));
+
+        ResponseEntity<byte[]> flatResponse = restTemplate.getForEntity(
+                r("{api}/ads/image/{id}", api(), createdAd.getId()), byte[].class);
+        Assertions.assertArrayEquals(testImageBytes, flatResponse.getBody());
+
+        UserCredentials admin = registerAndLoginUser("admin@example.com", UserRole.ADMIN);
+        ResponseEntity<StorageMigrationResponseDto> response = restTemplate.exchange(
+                r("{api}/maintenance/migrate-image-storage?batch={batch}", api(), 100),
+                HttpMethod.POST, new HttpEntity<>(createBasicAuthHeaders(admin)),
+                StorageMigrationResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertTrue(response.getBody().getMoved() >= 1);
+        Assertions.assertTrue(Files.exists(sharded));
+        Assertions.assertFalse(Files.exists(flat));
+
+        ResponseEntity<byte[]> shardedResponse = restTemplate.getForEntity(
+                r("{api}/ads/image/{id}", api(), createdAd.getId()), byte[].class);
+        Assertions.assertArrayEquals(testImageBytes, shardedResponse.getBody());
+    }
+
+    @DisplayName("Migrate image storage - should return 403 when user is not admin")
+    @Test
+    void migrateImageStorage_shouldReturnForbidden_whenUserIsNotAdmin() {
+
+        UserCredentials credentials = registerAndLoginUser();
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                r("{api}/maintenance/migrate-image-storage", api()),
+                HttpMethod.POST, new HttpEntity<>(headers), String.class);
+
+        Assertions.assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @DisplayName("Migrate image storage - should return 400 when batch exceeds maximum")
+    @Test
+    void migrateImageStorage_shouldReturnBadRequest_whenBatchExceedsMaximum() {
+
+        UserCredentials admin = registerAndLoginUser(UserRole.ADMIN);
+        HttpHeaders headers = createBasicAuthHeaders(admin);
+
+        ResponseEntity<CommonErrorResponseDto> response = restTemplate.exchange(
+                r("{api}/maintenance/migrate-image-storage?batch={batch}", api(),
+                        maintenanceValuesConfig.getMigrationBatchMax() + 1),
+                HttpMethod.POST, new HttpEntity<>(headers), CommonErrorResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private ResponseEntity<CommonErrorResponseDto> createAdWithImage(
+            UserCredentials credentials, byte[] imageBytes, String fileName) {
+
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        ByteArrayResource resource = new ByteArrayResource(imageBytes) {
+            @Override
+            public String getFilename() {
+                return fileName;
+            }
+        };
+
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("properties",
+                new CreateOrUpdateAdRequestDto("Test Ad", 1000, "Test description"));
+        body.add("image", resource);
+
+        return restTemplate.exchange(api() + "/ads", HttpMethod.POST,
+                new HttpEntity<>(body, headers), CommonErrorResponseDto.class);
+    }
+
+    @DisplayName("Create ad - should return 400 and store nothing when image dimensions too small")
+    @Test
+    void createAd_shouldReturn400_whenImageDimensionsTooSmall() throws IOException {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        // Noise does not compress: file size is within limits, dimensions are not.
+        BufferedImage small = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < small.getHeight(); y++) {
+            for (int x = 0; x < small.getWidth(); x++) {
+                small.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        ImageIO.write(small, "png", os);
+
+        ResponseEntity<CommonErrorResponseDto> response =
+                createAdWithImage(credentials, os.toByteArray(), "small.png");
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertEquals(0, adRepository.count());
+        if (Files.isDirectory(resourceService.getImagesDirectory())) {
+            try (Stream<Path> files = Files.walk(resourceService.getImagesDirectory())) {
+                Assertions.assertEquals(0, files.filter(Files::isRegularFile).count());
+            }
+        }
+    }
+
+    @DisplayName("Create ad - should return 400 when declared media type does not match image")
+    @Test
+    void createAd_shouldReturn400_whenMediaTypeDoesNotMatchContent() {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        // JPEG content declared as PNG.
+        ResponseEntity<CommonErrorResponseDto> response =
+                createAdWithImage(credentials, testImageBytes, "fake.png");
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertEquals(0, adRepository.count());
+    }
+
+    @DisplayName("Create ads in bulk - should return 201 and share one stored image")
+    @Test
+    void addAdsBulk_shouldReturn201_whenDealer() {
+
+        UserCredentials credentials = registerAndLoginUser(UserRole.DEALER);
+
+        ResponseEntity<AdsArrayResponseDto> response = createAdsBulk(credentials, 120);
+
+        Assertions.assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        Assertions.assertEquals(120, response.getBody().getCount());
+        Assertions.assertEquals(120, adRepository.count());
+
+        String name = imageRepository.findAll().getFirst().getName();
+        Assertions.assertEquals(120, imageRepository.countByName(name));
+    }
+
+    @DisplayName("Create ads in bulk - should return 403 and store nothing when not a dealer")
+    @Test
+    void addAdsBulk_shouldReturn403_whenNotDealer() {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        ResponseEntity<AdsArrayResponseDto> response = createAdsBulk(credentials, 2);
+
+        Assertions.assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        Assertions.assertEquals(0, adRepository.count());
+    }
+
+    @DisplayName("Create ads in bulk - should return 401 and store nothing when anonymous")
+    @Test
+    void addAdsBulk_shouldReturn401_whenAnonymous() {
+
+        ResponseEntity<AdsArrayResponseDto> response = createAdsBulk(null, 2);
+
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        Assertions.assertEquals(0, adRepository.count());
+    }
+
+    private byte[] createImportArchive(List<AdImportItemDto> items, Map<String, byte[]> images)
+            throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry(AdImportService.MANIFEST_NAME));
+            zip.write(objectMapper.writeValueAsBytes(items));
+            zip.closeEntry();
+            for (Map.Entry<String, byte[]> image : images.entrySet()) {
+                zip.putNextEntry(new ZipEntry(image.getKey()));
+                zip.write(image.getValue());
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private ResponseEntity<AdImportJobResponseDto> startImport(UserCredentials credentials,
+            byte[] archive) {
+
+        // No credentials: anonymous request.
+        HttpHeaders headers = credentials == null
+                ? new HttpHeaders()
+                : createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.parseMediaType(AdImportService.ARCHIVE_MEDIA_TYPE));
+
+        return restTemplate.exchange(
+                r("{api}/ads/import", api()),
+                HttpMethod.POST,
+                new HttpEntity<>(archive, headers),
+                AdImportJobResponseDto.class);
+    }
+
+    private AdImportJobResponseDto awaitImportJob(UserCredentials credentials, String jobId)
+            throws InterruptedException {
+
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (true) {
+            ResponseEntity<AdImportJobResponseDto> response = restTemplate.exchange(
+                    r("{api}/ads/import/{id}", api(), jobId),
+                    HttpMethod.GET,
+                    new HttpEntity<>(headers),
+                    AdImportJobResponseDto.class);
+            Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+            Assertions.assertNotNull(response.getBody());
+
+            AdImportStatus status = response.getBody().getStatus();
+            if (status == AdImportStatus.COMPLETED || status == AdImportStatus.FAILED) {
+                return response.getBody();
+            }
+            Assertions.assertTrue(System.currentTimeMillis() < deadline, "Import timed out");
+            Thread.sleep(100);
+        }
+    }
+
+    @DisplayName("Import ads - should import valid ads and report rejected ones")
+    @Test
+    void importAds_shouldImportValidAds_whenDealer() throws Exception {
+
+        UserCredentials credentials = registerAndLoginUser(UserRole.DEALER);
+
+        List<AdImportItemDto> items = new ArrayList<>(IntStream.range(0, 3)
+                .mapToObj(i -> new AdImportItemDto(
+                        "Imported Ad " + i, 100 + i, "Imported description", "photo.jpg"))
+                .toList());
+        items.add(new AdImportItemDto("Bad", 100, "Imported description", "photo.jpg"));
+        items.add(new AdImportItemDto("No image", 100, "Imported description", "missing.jpg"));
+
+        ResponseEntity<AdImportJobResponseDto> response = startImport(credentials,
+                createImportArchive(items, Map.of("photo.jpg", testImageBytes)));
+
+        Assertions.assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+
+        AdImportJobResponseDto job = awaitImportJob(credentials, response.getBody().getId());
+        Assertions.assertEquals(AdImportStatus.COMPLETED, job.getStatus(), job.toString());
+        Assertions.assertEquals(5, job.getTotal());
+        Assertions.assertEquals(1, job.getImagesStored());
+        Assertions.assertEquals(3, job.getImported());
+        Assertions.assertEquals(2, job.getRejected());
+        Assertions.assertEquals(2, job.getErrors().size());
+
+        Assertions.assertEquals(3, adRepository.count());
+        Assertions.assertEquals(3, imageRepository.count());
+
+        ResponseEntity<AdsArrayResponseDto> myAds = restTemplate.exchange(
+                r("{api}/ads/me", api()),
+                HttpMethod.GET,
+                new HttpEntity<>(createBasicAuthHeaders(credentials)),
+                AdsArrayResponseDto.class);
+        Assertions.assertNotNull(myAds.getBody());
+        Assertions.assertEquals(3, myAds.getBody().getCount());
+    }
+
+    @DisplayName("Import ads - should return 403 when not a dealer")
+    @Test
+    void importAds_shouldReturn403_whenNotDealer() throws Exception {
+
+        UserCredentials credentials = registerAndLoginUser();
+
+        ResponseEntity<AdImportJobResponseDto> response = startImport(credentials,
+                createImportArchive(List.of(), Map.of()));
+
+        Assertions.assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @DisplayName("Import ads - should return 400 when archive exceeds maximum size")
+    @Test
+    void importAds_shouldReturn400_whenArchiveTooLarge() {
+
+        UserCredentials credentials = registerAndLoginUser(UserRole.DEALER);
+
+        ResponseEntity<AdImportJobResponseDto> response = startImport(credentials,
+                new byte[(int) bulkValuesConfig.getImportMaxArchiveBytes() + 1]);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @DisplayName("Import ads - should return 401 when anonymous")
+    @Test
+    void importAds_shouldReturn401_whenAnonymous() throws Exception {
+
+        ResponseEntity<AdImportJobResponseDto> response = startImport(null,
+                createImportArchive(List.of(), Map.of()));
+
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    @DisplayName("Import ads - should fail job when manifest is missing")
+    @Test
+    void importAds_shouldFail_whenNoManifest() throws Exception {
+
+        UserCredentials credentials = registerAndLoginUser(UserRole.DEALER);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("photo.jpg"));
+            zip.write(testImageBytes);
+            zip.closeEntry();
+        }
+
+        ResponseEntity<AdImportJobResponseDto> response =
+                startImport(credentials, bytes.toByteArray());
+        Assertions.assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+
+        AdImportJobResponseDto job = awaitImportJob(credentials, response.getBody().getId());
+        Assertions.assertEquals(AdImportStatus.FAILED, job.getStatus());
+        Assertions.assertEquals(0, adRepository.count());
+    }
+
+    @DisplayName("Import job - should return 404 for unknown job")
+    @Test
+    void getImportJob_shouldReturn404_whenUnknown() {
+
+        UserCredentials credentials = registerAndLoginUser(UserRole.DEALER);
+
+        ResponseEntity<CommonErrorResponseDto> response = restTemplate.exchange(
+                r("{api}/ads/import/{id}", api(), "00000000-0000-0000-0000-000000000000"),
+                HttpMethod.GET,
+                new HttpEntity<>(createBasicAuthHeaders(credentials)),
+                CommonErrorResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @DisplayName("Import job - should return status published by another node")
+    @Test
+    void getImportJob_shouldReturnPublishedStatus_whenJobRunsOnAnotherNode() throws Exception {
+
+        UserCredentials owner = registerAndLoginUser(UserRole.DEALER);
+        UserCredentials stranger = registerAndLoginUser(UserRole.DEALER);
+
+        String jobId = UUID.randomUUID().toString();
+        redisTemplate.opsForValue().set(AdImportService.JOB_KEY_PREFIX + jobId,
+                objectMapper.writeValueAsString(Map.of(
+                        "ownerName", owner.name(),
+                        "status", new AdImportJobResponseDto(jobId, AdImportStatus.RUNNING,
+                                10, 10, 4, 0, List.of()))),
+                AdImportService.UNFINISHED_JOB_TTL);
+        try {
+            ResponseEntity<AdImportJobResponseDto> response = restTemplate.exchange(
+                    r("{api}/ads/import/{id}", api(), jobId),
+                    HttpMethod.GET,
+                    new HttpEntity<>(createBasicAuthHeaders(owner)),
+                    AdImportJobResponseDto.class);
+            Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+            Assertions.assertNotNull(response.getBody());
+            Assertions.assertEquals(AdImportStatus.RUNNING, response.getBody().getStatus());
+            Assertions.assertEquals(4, response.getBody().getImported());
+
+            ResponseEntity<CommonErrorResponseDto> foreign = restTemplate.exchange(
+                    r("{api}/ads/import/{id}", api(), jobId),
+                    HttpMethod.GET,
+                    new HttpEntity<>(createBasicAuthHeaders(stranger)),
+                    CommonErrorResponseDto.class);
+            Assertions.assertEquals(HttpStatus.NOT_FOUND, foreign.getStatusCode());
+        } finally {
+            redisTemplate.delete(AdImportService.JOB_KEY_PREFIX + jobId);
+        }
+    }
+
+    @DisplayName("Import job - should return 401 when anonymous")
+    @Test
+    void getImportJob_shouldReturn401_whenAnonymous() {
+
+        ResponseEntity<Void> response = restTemplate.getForEntity(
+                r("{api}/ads/import/{id}", api(), "00000000-0000-0000-0000-000000000000"),
+                Void.class);
+
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
 }
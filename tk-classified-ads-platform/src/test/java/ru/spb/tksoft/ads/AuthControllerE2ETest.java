@@ -6,11 +6,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import ru.spb.tksoft.ads.dto.request.LoginRequestDto;
 import ru.spb.tksoft.ads.dto.request.RegisterRequestDto;
+import ru.spb.tksoft.ads.dto.response.LoginResponseDto;
+import ru.spb.tksoft.ads.dto.response.UserResponseDto;
+import ru.spb.tksoft.ads.enumeration.UserRole;
 
 /**
  * E2E for AuthController.
@@ -71,6 +78,24 @@ class AuthControllerE2ETest extends E2ETestBase {
         Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
     }
 
+    @DisplayName("Register failed - 400 when privileged role is self-assigned")
+    @ParameterizedTest
+    @EnumSource(value = UserRole.class, names = {"DEALER", "ADMIN"})
+    void register_400_whenPrivilegedRole(UserRole role) {
+
+        RegisterRequestDto request = createValidRegisterRequest();
+        request.setRole(role);
+
+        ResponseEntity<Void> response = sendRegisterRequest(request);
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        Assertions.assertFalse(userRepository.existsByName(request.getUsername()));
+
+        // Nor can the refused user log in.
+        ResponseEntity<Void> loginResponse = sendLoginRequest(
+                new LoginRequestDto(request.getUsername(), request.getPassword()));
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, loginResponse.getStatusCode());
+    }
+
     static Stream<LoginRequestDto> invalidLoginRequests() {
         return Stream.of(
                 new LoginRequestDto("invalid", "password"),
@@ -121,4 +146,46 @@ class AuthControllerE2ETest extends E2ETestBase {
         ResponseEntity<Void> response = sendLoginRequest(loginRequest);
         Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
+
+    @DisplayName("Login returns token, token authenticates requests")
+    @Test
+    void login_200AndToken_whenValidCredentials_tokenAuthenticates() {
+
+        RegisterRequestDto request = createValidRegisterRequest();
+        sendRegisterRequest(request);
+
+        ResponseEntity<LoginResponseDto> loginResponse = restTemplate.postForEntity(
+                api() + "/login",
+                new LoginRequestDto(request.getUsername(), request.getPassword()),
+                LoginResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, loginResponse.getStatusCode());
+        Assertions.assertNotNull(loginResponse.getBody());
+        Assertions.assertNotNull(loginResponse.getBody().getToken());
+        Assertions.assertEquals("Bearer", loginResponse.getBody().getTokenType());
+
+        var headers = new HttpHeaders();
+        headers.setBearerAuth(loginResponse.getBody().getToken());
+
+        ResponseEntity<UserResponseDto> meResponse = restTemplate.exchange(
+                api() + "/users/me", HttpMethod.GET, new HttpEntity<>(headers),
+                UserResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, meResponse.getStatusCode());
+        Assertions.assertNotNull(meResponse.getBody());
+        Assertions.assertEquals(request.getUsername(), meResponse.getBody().getEmail());
+    }
+
+    @DisplayName("Request with invalid token - 401")
+    @Test
+    void request_401_whenInvalidToken() {
+
+        var headers = new HttpHeaders();
+        headers.setBearerAuth("invalid.token.value");
+
+        ResponseEntity<Void> response = restTemplate.exchange(
+                api() + "/users/me", HttpMethod.GET, new HttpEntity<>(headers), Void.class);
+
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
 }
@@ -0,0 +1,44 @@
+package ru.spb.tksoft.ads;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Collects SQL generated by Hibernate in the current thread, so tests can examine the exact
+ * statements repositories send. Registered in the test profile.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    /**
+     * Run the call and collect SQL statements it has prepared.
+     *
+     * @param call Repository call.
+     * @return Statements in order of preparation.
+     */
+    public static List<String> capture(Runnable call) {
+
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            call.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+
+        List<String> statements = CAPTURED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
@@ -1,23 +1,31 @@
 package ru.spb.tksoft.ads;
 
 import java.io.IOException;
-import java.util.Set;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import ru.spb.tksoft.ads.config.MaintenanceValuesConfig;
 import ru.spb.tksoft.ads.dto.request.CreateOrUpdateCommentRequestDto;
 import ru.spb.tksoft.ads.dto.response.AdResponseDto;
 import ru.spb.tksoft.ads.dto.response.CommentResponseDto;
 import ru.spb.tksoft.ads.dto.response.CommentsArrayResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentsPageResponseDto;
+import ru.spb.tksoft.ads.enumeration.UserRole;
+import ru.spb.tksoft.ads.service.CommentService;
 import org.springframework.core.io.Resource;
 
 import static ru.spb.tksoft.utils.string.StringEx.r;
@@ -29,6 +37,12 @@ import static ru.spb.tksoft.utils.string.StringEx.r;
  */
 class CommentControllerE2ETest extends E2ETestBase {
 
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private MaintenanceValuesConfig maintenanceValuesConfig;
+
     private AdResponseDto testAd;
     private UserCredentials credentials;
 
@@ -129,12 +143,175 @@ class CommentControllerE2ETest extends E2ETestBase {
         Assertions.assertNotNull(response.getBody());
         Assertions.assertEquals(2, response.getBody().getCount());
 
-        Set<CommentResponseDto> comments = response.getBody().getResults();
+        List<CommentResponseDto> comments = response.getBody().getResults();
         Assertions.assertEquals(2, comments.size());
-        Assertions.assertTrue(comments.stream()
-                .anyMatch(c -> "First comment".equals(c.getText())));
-        Assertions.assertTrue(comments.stream()
-                .anyMatch(c -> "Second comment".equals(c.getText())));
+        Assertions.assertEquals("Second comment", comments.get(0).getText());
+        Assertions.assertEquals("First comment", comments.get(1).getText());
+    }
+
+    private CommentsPageResponseDto getCommentsPage(long adId, String cursor, int size,
+            HttpHeaders headers) {
+
+        String url = cursor == null
+                ? r("{api}/ads/{id}/comments/page?size={size}", api(), adId, size)
+                : r("{api}/ads/{id}/comments/page?size={size}&cursor={cursor}", api(), adId,
+                        size, cursor);
+
+        ResponseEntity<CommentsPageResponseDto> response = restTemplate.exchange(
+                url, HttpMethod.GET, new HttpEntity<>(headers), CommentsPageResponseDto.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getBody());
+        return response.getBody();
+    }
+
+    @DisplayName("Get comments page - should walk all comments newest first without gaps")
+    @Test
+    void getCommentsPage_shouldWalkAllComments_whenPagedByCursor() {
+
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        final int total = 5;
+        for (int i = 0; i < total; i++) {
+            addComment(testAd.getId(), new CreateOrUpdateCommentRequestDto(COMMENT_TEXT + i),
+                    headers);
+        }
+
+        List<String> texts = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CommentsPageResponseDto page = getCommentsPage(testAd.getId(), cursor, 2, headers);
+            Assertions.assertEquals(page.getResults().size(), page.getCount());
+            page.getResults().forEach(c -> texts.add(c.getText()));
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertEquals(3, pages);
+        Assertions.assertEquals(List.of(COMMENT_TEXT + 4, COMMENT_TEXT + 3, COMMENT_TEXT + 2,
+                COMMENT_TEXT + 1, COMMENT_TEXT + 0), texts);
+    }
+
+    @DisplayName("Get comments page - cached first page should be evicted on new comment")
+    @Test
+    void getCommentsPage_shouldEvictCachedFirstPage_whenCommentAdded() {
+
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        addComment(testAd.getId(), new CreateOrUpdateCommentRequestDto("First comment"),
+                headers);
+
+        CommentsPageResponseDto first = getCommentsPage(testAd.getId(), null, 0, headers);
+        Assertions.assertEquals(1, first.getCount());
+        Assertions.assertNull(first.getNext());
+
+        addComment(testAd.getId(), new CreateOrUpdateCommentRequestDto("Second comment"),
+                headers);
+
+        CommentsPageResponseDto second = getCommentsPage(testAd.getId(), null, 0, headers);
+        Assertions.assertEquals(2, second.getCount());
+        Assertions.assertEquals("Second comment", second.getResults().get(0).getText());
+    }
+
+    @DisplayName("Get comments page - should return 400 when cursor is malformed")
+    @Test
+    void getCommentsPage_shouldReturn400_whenCursorMalformed() {
+
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                r("{api}/ads/{id}/comments/page?cursor={cursor}", api(), testAd.getId(),
+                        "not-a-cursor"),
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @DisplayName("Export comments - should stream all comments as NDJSON")
+    @Test
+    void exportComments_shouldStreamAllCommentsAsNdjson() throws IOException {
+
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        final int total = 3;
+        for (int i = 0; i < total; i++) {
+            addComment(testAd.getId(), new CreateOrUpdateCommentRequestDto(COMMENT_TEXT + i),
+                    headers);
+        }
+
+        UserCredentials admin = registerAndLoginUser("admin@example.com", UserRole.ADMIN);
+        ResponseEntity<String> response = restTemplate.exchange(
+                r("{api}/ads/comments/export", api()),
+                HttpMethod.GET, new HttpEntity<>(createBasicAuthHeaders(admin)), String.class);
+
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertNotNull(response.getHeaders().getContentType());
+        Assertions.assertTrue(MediaType.APPLICATION_NDJSON
+                .isCompatibleWith(response.getHeaders().getContentType()));
+        Assertions.assertNotNull(response.getBody());
+
+        // Exactly one JSON object per line, each line terminated by "\n", nothing in between.
+        String body = response.getBody();
+        Assertions.assertTrue(body.endsWith("\n"), body);
+        String[] lines = body.substring(0, body.length() - 1).split("\n", -1);
+        Assertions.assertEquals(total, lines.length, body);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int i = 0; i < total; i++) {
+            Assertions.assertTrue(lines[i].startsWith("{\"") && lines[i].endsWith("}"),
+                    lines[i]);
+            CommentResponseDto comment =
+                    objectMapper.readValue(lines[i], CommentResponseDto.class);
+            Assertions.assertEquals(COMMENT_TEXT + i, comment.getText());
+        }
+    }
+
+    @DisplayName("Export comments - should return 401 to anonymous and 403 to non-admin")
+    @Test
+    void exportComments_shouldRefuse_whenNotAdmin() {
+
+        ResponseEntity<String> anonymous = restTemplate.exchange(
+                r("{api}/ads/comments/export", api()),
+                HttpMethod.GET, HttpEntity.EMPTY, String.class);
+        Assertions.assertEquals(HttpStatus.UNAUTHORIZED, anonymous.getStatusCode());
+
+        ResponseEntity<String> user = restTemplate.exchange(
+                r("{api}/ads/comments/export", api()),
+                HttpMethod.GET, new HttpEntity<>(createBasicAuthHeaders(credentials)),
+                String.class);
+        Assertions.assertEquals(HttpStatus.FORBIDDEN, user.getStatusCode());
+    }
+
+    @DisplayName("Export comments - should return 503 when max exports are running")
+    @Test
+    void exportComments_shouldReturn503_whenAllSlotsTaken() {
+
+        UserCredentials admin = registerAndLoginUser("admin@example.com", UserRole.ADMIN);
+
+        final int slots = maintenanceValuesConfig.getExportMaxConcurrent();
+        for (int i = 0; i < slots; i++) {
+            commentService.startExport();
+        }
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(
+                    r("{api}/ads/comments/export", api()),
+                    HttpMethod.GET, new HttpEntity<>(createBasicAuthHeaders(admin)),
+                    String.class);
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        } finally {
+            for (int i = 0; i < slots; i++) {
+                commentService.exportComments(OutputStream.nullOutputStream());
+            }
+        }
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                r("{api}/ads/comments/export", api()),
+                HttpMethod.GET, new HttpEntity<>(createBasicAuthHeaders(admin)), String.class);
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
     @DisplayName("Update comment - should return 200 and updated comment")
@@ -2,6 +2,8 @@ package ru.spb.tksoft.ads;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Assertions;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +27,8 @@ import ru.spb.tksoft.ads.dto.request.CreateOrUpdateAdRequestDto;
 import ru.spb.tksoft.ads.dto.request.LoginRequestDto;
 import ru.spb.tksoft.ads.dto.request.RegisterRequestDto;
 import ru.spb.tksoft.ads.dto.response.AdResponseDto;
+import ru.spb.tksoft.ads.dto.response.AdsArrayResponseDto;
+import ru.spb.tksoft.ads.entity.UserEntity;
 import ru.spb.tksoft.ads.enumeration.UserRole;
 import ru.spb.tksoft.ads.repository.AdRepository;
 import ru.spb.tksoft.ads.repository.CommentRepository;
@@ -173,10 +177,29 @@ abstract class E2ETestBase {
 
     protected UserCredentials registerAndLoginUser() {
 
+        return registerAndLoginUser(UserRole.USER);
+    }
+
+    protected UserCredentials registerAndLoginUser(UserRole role) {
+
+        return registerAndLoginUser(createValidRegisterRequest().getUsername(), role);
+    }
+
+    protected UserCredentials registerAndLoginUser(String username, UserRole role) {
+
         RegisterRequestDto registerRequest = createValidRegisterRequest();
+        registerRequest.setUsername(username);
         ResponseEntity<Void> registerResponse = sendRegisterRequest(registerRequest);
         Assertions.assertEquals(HttpStatus.CREATED, registerResponse.getStatusCode());
 
+        // Privileged roles cannot be self-assigned: granted in the database.
+        if (role != UserRole.USER) {
+            UserEntity user = userRepository.findOneByNameLazy(username).orElseThrow();
+            user.setRole(role);
+            userRepository.save(user);
+            userServiceCached.clearCaches();
+        }
+
         LoginRequestDto loginRequest = new LoginRequestDto(
                 registerRequest.getUsername(),
                 registerRequest.getPassword());
@@ -218,4 +241,38 @@ abstract class E2ETestBase {
 
         return response.getBody();
     }
+
+    protected ResponseEntity<AdsArrayResponseDto> createAdsBulk(UserCredentials credentials,
+            int count) {
+
+        // No credentials: anonymous request.
+        HttpHeaders headers = credentials == null
+                ? new HttpHeaders()
+                : createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+
+        List<CreateOrUpdateAdRequestDto> properties = IntStream.range(0, count)
+                .mapToObj(i -> new CreateOrUpdateAdRequestDto(
+                        "Bulk Ad " + i,
+                        1000 + i,
+                        "Bulk description"))
+                .toList();
+
+        ByteArrayResource resource = new ByteArrayResource(testImageBytes) {
+            @Override
+            public String getFilename() {
+                return TEST_IMAGE;
+            }
+        };
+
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("properties", properties);
+        body.add("image", resource);
+
+        return restTemplate.exchange(
+                api() + "/ads/bulk",
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                AdsArrayResponseDto.class);
+    }
 }
@@ -0,0 +1,171 @@
+package ru.spb.tksoft.ads;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManagerFactory;
+import ru.spb.tksoft.ads.dto.request.CreateOrUpdateCommentRequestDto;
+import ru.spb.tksoft.ads.dto.response.AdResponseDto;
+import ru.spb.tksoft.ads.dto.response.CommentResponseDto;
+import ru.spb.tksoft.ads.entity.AdEntity;
+import ru.spb.tksoft.ads.entity.CommentEntity;
+import ru.spb.tksoft.ads.enumeration.UserRole;
+
+import static ru.spb.tksoft.utils.string.StringEx.r;
+
+/**
+ * Amount of SQL statements per repository call, counted by Hibernate statistics.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class HibernateStatisticsTest extends E2ETestBase {
+
+    @Autowired
+    @Qualifier("adsEntityManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private UserCredentials credentials;
+    private AdResponseDto testAd;
+
+    @BeforeEach
+    void setupEach() throws IOException {
+
+        commentRepository.deleteAll();
+
+        imageRepository.deleteAll();
+        adRepository.deleteAll();
+
+        userRepository.deleteAll();
+
+        userServiceCached.clearCaches();
+        adServiceCached.clearCaches();
+
+        Resource imageResource = new ClassPathResource(TEST_IMAGE);
+        testImageBytes = imageResource.getInputStream().readAllBytes();
+
+        credentials = registerAndLoginUser();
+        testAd = createAd(credentials);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDownEach() {
+
+        statistics.setStatisticsEnabled(false);
+        clearMedia();
+    }
+
+    @DisplayName("Ad by ID - one statement, image is not loaded")
+    @Test
+    void findById_shouldLoadAdWithOneStatement() {
+
+        AdEntity ad = adRepository.findById(testAd.getId()).orElseThrow();
+
+        Assertions.assertEquals(testAd.getId(), ad.getId());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @DisplayName("Ad by owner and ID - one statement, image is not loaded")
+    @Test
+    void findOneByUserNameAndAdId_shouldLoadAdWithOneStatement() {
+
+        AdEntity ad = adRepository
+                .findOneByUserNameAndAdId(credentials.name(), testAd.getId())
+                .orElseThrow();
+
+        Assertions.assertEquals(testAd.getId(), ad.getId());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @DisplayName("Image by ad ID - one statement by primary key")
+    @Test
+    void findImageById_shouldLoadImageWithOneStatement() {
+
+        Assertions.assertTrue(imageRepository.findById(testAd.getId()).isPresent());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @DisplayName("Entities in sets and logs - no statements, lazy associations stay proxies")
+    @Test
+    void entitiesInCollections_shouldNotTriggerStatements() {
+
+        HttpHeaders headers = createBasicAuthHeaders(credentials);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        for (String text : List.of("First comment", "Second comment")) {
+            Assertions.assertEquals(HttpStatus.OK, restTemplate.exchange(
+                    r("{api}/ads/{id}/comments", api(), testAd.getId()),
+                    HttpMethod.POST,
+                    new HttpEntity<>(new CreateOrUpdateCommentRequestDto(text), headers),
+                    CommentResponseDto.class).getStatusCode());
+        }
+        statistics.clear();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+
+            List<CommentEntity> comments = commentRepository.findAll();
+
+            Set<Object> entities = new HashSet<>();
+            for (CommentEntity comment : comments) {
+                entities.add(comment);
+                entities.add(comment.getAd());
+                entities.add(comment.getUser());
+                Assertions.assertEquals("CommentEntity(id=" + comment.getId() + ")",
+                        comment.toString());
+                Assertions.assertEquals("UserEntity(id=" + comment.getUser().getId() + ")",
+                        comment.getUser().toString());
+            }
+
+            // Two comments, one ad proxy, one user proxy.
+            Assertions.assertEquals(4, entities.size());
+            Assertions.assertFalse(Hibernate.isInitialized(comments.getFirst().getAd()));
+            Assertions.assertFalse(Hibernate.isInitialized(comments.getFirst().getUser()));
+        });
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @DisplayName("Bulk ads - inserts are sent in JDBC batches")
+    @Test
+    void createAdsBulk_shouldBatchInserts() {
+
+        UserCredentials dealer = registerAndLoginUser("dealer@example.com", UserRole.DEALER);
+        statistics.clear();
+
+        Assertions.assertEquals(HttpStatus.CREATED,
+                createAdsBulk(dealer, 200).getStatusCode());
+
+        // 400 rows one by one would be 400 statements; batches of 50 are a few.
+        Assertions.assertEquals(400, statistics.getEntityInsertCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() < 40,
+                String.valueOf(statistics.getPrepareStatementCount()));
+    }
+}
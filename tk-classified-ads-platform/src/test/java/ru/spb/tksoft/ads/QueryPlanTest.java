@@ -0,0 +1,181 @@
+package ru.spb.tksoft.ads;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.StringJoiner;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Query plans of hot lookups: each one must be served by the named index.
+ *
+ * Repository queries are planned exactly as Hibernate generates them: the SQL is captured by
+ * {@link CapturingStatementInspector} and explained as a generic plan, the one a prepared
+ * statement gets for any parameter values. Test tables are tiny, so sequential scans are
+ * disabled for the session: the planner then shows which index it would use on real data, and
+ * falls back to "Seq Scan" only if there is none.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class QueryPlanTest extends E2ETestBase {
+
+    private static final int PAGE_LIMIT = 21;
+
+    @Autowired
+    @Qualifier("adsDataSource")
+    private DataSource dataSource;
+
+    private Connection connection;
+
+    @BeforeEach
+    void setupEach() throws SQLException {
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+    }
+
+    @AfterEach
+    void tearDownEach() throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("RESET enable_seqscan");
+        }
+        connection.close();
+    }
+
+    /**
+     * @return The only statement sent by the repository call.
+     */
+    private String captureSql(Runnable call) {
+
+        List<String> statements = CapturingStatementInspector.capture(call);
+        Assertions.assertEquals(1, statements.size(), statements.toString());
+        return statements.getFirst();
+    }
+
+    /**
+     * @return Generic plan of the statement: JDBC placeholders become numbered parameters.
+     */
+    private String explain(String sql) throws SQLException {
+
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        StringJoiner plan = new StringJoiner("\n");
+        try (Statement statement = connection.createStatement();
+                ResultSet rows = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numbered)) {
+            while (rows.next()) {
+                plan.add(rows.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+
+    private void assertIndexUsed(String indexName, String sql) throws SQLException {
+
+        String plan = explain(sql);
+        // "Index Scan using <name> on ..." or "Bitmap Index Scan on <name>".
+        Assertions.assertTrue(plan.contains(" " + indexName + " "), sql + "\n" + plan);
+        Assertions.assertFalse(plan.contains("Seq Scan"), sql + "\n" + plan);
+    }
+
+    @DisplayName("Ads of a user - AdRepository.findManyMinimalByName")
+    @Test
+    void adsByUserName_shouldUseUserIdIndex() throws SQLException {
+
+        // User is found by unique name first, then ads by user ID.
+        String sql = captureSql(() -> adRepository.findManyMinimalByName("valid@example.com"));
+
+        assertIndexUsed("idx_user_name", sql);
+        assertIndexUsed("idx_ad_user_id", sql);
+    }
+
+    @DisplayName("Ads page - AdRepository.findManyMinimalBefore")
+    @Test
+    void adsPage_shouldUsePrimaryKey() throws SQLException {
+
+        // Page is read backwards along the primary key, no separate keyset index.
+        String sql = captureSql(
+                () -> adRepository.findManyMinimalBefore(1000L, Limit.of(PAGE_LIMIT)));
+
+        assertIndexUsed("ad_pkey", sql);
+    }
+
+    @DisplayName("Image of an ad - ImageRepository.findOneFile")
+    @Test
+    void imageByAdId_shouldUsePrimaryKey() throws SQLException {
+
+        String sql = captureSql(() -> imageRepository.findOneFile(1L));
+
+        assertIndexUsed("image_pkey", sql);
+    }
+
+    @DisplayName("First comments page of an ad - CommentRepository.findManyMinimalByAdId")
+    @Test
+    void commentsFirstPage_shouldUseAdIdCreatedAtIndex() throws SQLException {
+
+        String sql = captureSql(
+                () -> commentRepository.findManyMinimalByAdId(1L, Limit.of(PAGE_LIMIT)));
+
+        assertIndexUsed("idx_comment_ad_id_created_at", sql);
+    }
+
+    @DisplayName("Comments page of an ad - CommentRepository.findManyMinimalByAdIdBefore")
+    @Test
+    void commentsPage_shouldUseAdIdCreatedAtIndex() throws SQLException {
+
+        String sql = captureSql(() -> commentRepository.findManyMinimalByAdIdBefore(1L,
+                Instant.now(), 1000L, Limit.of(PAGE_LIMIT)));
+
+        assertIndexUsed("idx_comment_ad_id_created_at", sql);
+    }
+
+    @DisplayName("Cascade deletion of comments with their ad")
+    @Test
+    void commentsByAdId_shouldUseAdIdCreatedAtIndex() throws SQLException {
+
+        // Statement of the ON DELETE CASCADE trigger.
+        assertIndexUsed("idx_comment_ad_id_created_at", """
+                DELETE FROM ONLY "public"."comment" WHERE ? OPERATOR(pg_catalog.=) "ad_id\"""");
+    }
+
+    @DisplayName("Ads of a user - foreign key check on user deletion")
+    @Test
+    void adsByUserId_shouldUseUserIdIndex() throws SQLException {
+
+        // Statement of the NO ACTION foreign key trigger.
+        assertIndexUsed("idx_ad_user_id", """
+                SELECT 1 FROM ONLY "public"."ad" x WHERE ? OPERATOR(pg_catalog.=) "user_id" \
+                FOR KEY SHARE OF x""");
+    }
+
+    @DisplayName("Comments of a user - foreign key check on user deletion")
+    @Test
+    void commentsByUserId_shouldUseUserIdIndex() throws SQLException {
+
+        // Statement of the NO ACTION foreign key trigger.
+        assertIndexUsed("idx_comment_user_id", """
+                SELECT 1 FROM ONLY "public"."comment" x WHERE ? OPERATOR(pg_catalog.=) \
+                "user_id" FOR KEY SHARE OF x""");
+    }
+}
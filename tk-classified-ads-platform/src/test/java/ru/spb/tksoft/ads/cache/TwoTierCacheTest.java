@@ -0,0 +1,161 @@
+package ru.spb.tksoft.ads.cache;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.spb.tksoft.ads.dto.response.ImageFileDto;
+import ru.spb.tksoft.ads.dto.response.StorageMigrationResponseDto;
+
+/**
+ * TwoTierCache tests: two nodes share L2 and invalidation broker, each has its own L1.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class TwoTierCacheTest {
+
+    private static final String CACHE_NAME = "test";
+
+    private SteppingCache l2;
+    private TwoTierCache nodeA;
+    private TwoTierCache nodeB;
+
+    /** Shared L2 that runs a step after a read, before the value gets to the caller. */
+    private static class SteppingCache extends ConcurrentMapCache {
+
+        private Runnable afterRead;
+
+        SteppingCache(final String name) {
+            super(name);
+        }
+
+        @Override
+        public ValueWrapper get(final Object key) {
+
+            final ValueWrapper wrapper = super.get(key);
+            if (afterRead != null) {
+                final Runnable step = afterRead;
+                afterRead = null;
+                step.run();
+            }
+            return wrapper;
+        }
+    }
+
+    private static TwoTierCache createNode(final CacheManager l2CacheManager,
+            final CacheInvalidationBroker broker) {
+
+        return (TwoTierCache) new TwoTierCacheManager(l2CacheManager, broker,
+                new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)).getCache(CACHE_NAME);
+    }
+
+    @BeforeEach
+    void setupEach() {
+
+        l2 = new SteppingCache(CACHE_NAME);
+
+        final var l2CacheManager = new SimpleCacheManager();
+        l2CacheManager.setCaches(List.of(l2));
+        l2CacheManager.afterPropertiesSet();
+
+        final var broker = new LocalCacheInvalidationBroker();
+        nodeA = createNode(l2CacheManager, broker);
+        nodeB = createNode(l2CacheManager, broker);
+    }
+
+    @DisplayName("Get - L1 hit does not go to L2")
+    @Test
+    void get_shouldReturnL1Value_whenL2IsEmpty() {
+
+        nodeA.put(1L, new StorageMigrationResponseDto(1, true));
+        l2.evict(1L);
+
+        Assertions.assertEquals(new StorageMigrationResponseDto(1, true),
+                nodeA.get(1L, StorageMigrationResponseDto.class));
+    }
+
+    @DisplayName("Get - L1 miss falls back to L2 and populates L1")
+    @Test
+    void get_shouldFallBackToL2AndPopulateL1() {
+
+        l2.put(1L, new StorageMigrationResponseDto(2, false));
+
+        Assertions.assertNull(nodeB.getLocalCache().getIfPresent("1"));
+        Assertions.assertEquals(new StorageMigrationResponseDto(2, false),
+                nodeB.get(1L, StorageMigrationResponseDto.class));
+        Assertions.assertNotNull(nodeB.getLocalCache().getIfPresent("1"));
+    }
+
+    @DisplayName("Evict - drops the entry from L1 of other nodes")
+    @Test
+    void evict_shouldInvalidateL1OfOtherNodes() {
+
+        nodeA.put(1L, new StorageMigrationResponseDto(3, true));
+        Assertions.assertNotNull(nodeB.get(1L));
+        Assertions.assertNotNull(nodeB.getLocalCache().getIfPresent("1"));
+
+        nodeA.evict(1L);
+
+        Assertions.assertNull(nodeA.getLocalCache().getIfPresent("1"));
+        Assertions.assertNull(nodeB.getLocalCache().getIfPresent("1"));
+        Assertions.assertNull(nodeB.get(1L));
+    }
+
+    @DisplayName("Clear - drops L1 of other nodes")
+    @Test
+    void clear_shouldInvalidateL1OfOtherNodes() {
+
+        nodeA.put(1L, new StorageMigrationResponseDto(4, true));
+        Assertions.assertNotNull(nodeB.get(1L));
+
+        nodeA.clear();
+
+        Assertions.assertEquals(0, nodeB.getLocalCache().estimatedSize());
+        Assertions.assertNull(nodeB.get(1L));
+    }
+
+    @DisplayName("Get - L1 hit returns the stored value itself")
+    @Test
+    void get_shouldReturnSameInstance_whenL1Hit() {
+
+        final var value = new ImageFileDto("name", "image/png");
+        nodeA.put(1L, value);
+
+        Assertions.assertSame(value, nodeA.get(1L, ImageFileDto.class));
+        Assertions.assertSame(value, nodeA.get(1L, ImageFileDto.class));
+    }
+
+    @DisplayName("Get - L2 read overlapping an evict does not bring the old value to L1")
+    @Test
+    void get_shouldNotPopulateL1_whenEvictedDuringL2Read() {
+
+        l2.put(1L, new ImageFileDto("old", "image/png"));
+
+        // Node B has read the old value from L2 when node A evicts the key.
+        l2.afterRead = () -> nodeA.evict(1L);
+        Assertions.assertEquals(new ImageFileDto("old", "image/png"),
+                nodeB.get(1L, ImageFileDto.class));
+
+        Assertions.assertNull(nodeB.getLocalCache().getIfPresent("1"));
+        Assertions.assertNull(nodeB.get(1L));
+    }
+
+    @DisplayName("Get - L2 read overlapping a clear does not bring the old value to L1")
+    @Test
+    void get_shouldNotPopulateL1_whenClearedDuringL2Read() {
+
+        l2.put(1L, new ImageFileDto("old", "image/png"));
+
+        l2.afterRead = () -> nodeB.clear();
+        Assertions.assertNotNull(nodeB.get(1L));
+
+        Assertions.assertEquals(0, nodeB.getLocalCache().estimatedSize());
+        Assertions.assertNull(nodeB.get(1L));
+    }
+}
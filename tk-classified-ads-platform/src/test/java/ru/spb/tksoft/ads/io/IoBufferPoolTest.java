@@ -0,0 +1,116 @@
+package ru.spb.tksoft.ads.io;
+
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.spb.tksoft.ads.config.IoBufferPoolValuesConfig;
+import ru.spb.tksoft.ads.exception.TkServiceBusyException;
+
+/**
+ * IoBufferPool tests: small heap buffers, two at most, short acquire timeout.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class IoBufferPoolTest {
+
+    private static final int BUFFER_SIZE = 16;
+    private static final int MAX_BUFFERS = 2;
+
+    private MeterRegistry meterRegistry;
+    private IoBufferPool pool;
+
+    @BeforeEach
+    void setupEach() {
+
+        final var config = new IoBufferPoolValuesConfig();
+        config.setBufferSize(BUFFER_SIZE);
+        config.setMaxBuffers(MAX_BUFFERS);
+        config.setDirect(false);
+        config.setAcquireTimeoutMillis(500);
+
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new IoBufferPool(config, meterRegistry);
+    }
+
+    private double gauge(final String name) {
+
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @DisplayName("Acquire - returns a cleared buffer of configured size")
+    @Test
+    void acquire_shouldReturnClearedBuffer() {
+
+        final ByteBuffer buffer = pool.acquire();
+
+        Assertions.assertEquals(BUFFER_SIZE, buffer.capacity());
+        Assertions.assertEquals(0, buffer.position());
+        Assertions.assertEquals(BUFFER_SIZE, buffer.remaining());
+        Assertions.assertEquals(1, gauge(IoBufferPool.METRIC_IN_USE));
+        Assertions.assertEquals(1, gauge(IoBufferPool.METRIC_ALLOCATED));
+
+        pool.release(buffer);
+        Assertions.assertEquals(0, gauge(IoBufferPool.METRIC_IN_USE));
+    }
+
+    @DisplayName("Release - returned buffer is reused, cleared, without new allocation")
+    @Test
+    void release_shouldReuseBuffer() {
+
+        final ByteBuffer first = pool.acquire();
+        first.put((byte) 1).put((byte) 2);
+        pool.release(first);
+
+        final ByteBuffer second = pool.acquire();
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(0, second.position());
+        Assertions.assertEquals(BUFFER_SIZE, second.limit());
+        Assertions.assertEquals(1, gauge(IoBufferPool.METRIC_ALLOCATED));
+    }
+
+    @DisplayName("Acquire - throws after timeout when all buffers are in use")
+    @Test
+    void acquire_shouldThrowServiceBusy_whenExhausted() {
+
+        final ByteBuffer first = pool.acquire();
+        final ByteBuffer second = pool.acquire();
+        Assertions.assertNotSame(first, second);
+
+        Assertions.assertThrows(TkServiceBusyException.class, pool::acquire);
+        Assertions.assertEquals(MAX_BUFFERS, gauge(IoBufferPool.METRIC_ALLOCATED));
+        Assertions.assertEquals(MAX_BUFFERS, gauge(IoBufferPool.METRIC_IN_USE));
+
+        // Pool recovers as soon as a buffer is returned.
+        pool.release(second);
+        Assertions.assertSame(second, pool.acquire());
+    }
+
+    @DisplayName("Acquire - waiting caller gets the buffer released meanwhile")
+    @Test
+    void acquire_shouldWaitForReleasedBuffer_whenExhausted() throws InterruptedException {
+
+        final ByteBuffer first = pool.acquire();
+        pool.acquire();
+
+        final Thread releaser = Thread.ofVirtual().start(() -> pool.release(first));
+        final ByteBuffer reused = pool.acquire();
+        releaser.join();
+
+        Assertions.assertSame(first, reused);
+        Assertions.assertEquals(MAX_BUFFERS, gauge(IoBufferPool.METRIC_ALLOCATED));
+    }
+
+    @DisplayName("Release - null is ignored")
+    @Test
+    void release_shouldIgnoreNull() {
+
+        pool.release(null);
+
+        Assertions.assertEquals(0, gauge(IoBufferPool.METRIC_IN_USE));
+    }
+}
@@ -1,10 +1,30 @@
 package ru.spb.tksoft.common.controller.advice;
 
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import jakarta.validation.constraints.NotNull;
+import ru.spb.tksoft.common.controller.dto.CommonErrorResponseDto;
+import ru.spb.tksoft.utils.log.LogEx;
 
 /**
  * Base class for controller advice.
  * 
+ * Two response formats: {@link CommonErrorResponseDto} with stack trace in details (default)
+ * and compact RFC 7807 problem details with correlation ID ("tk.error-response.production"),
+ * where server errors get a generic detail.
+ * Stack traces are logged for one of "tk.error-response.stack-trace-sample-rate" errors.
+ * 
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
 public abstract class AbstractBaseControllerAdvice {
@@ -12,9 +32,56 @@ public abstract class AbstractBaseControllerAdvice {
     /** Message prefix for any exception message. */
     public static final String MESSAGE_PREFIX = "Exception caught";
 
+    /** Request/response header with correlation ID. */
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
+    /** Problem detail property: error code. */
+    public static final String CODE_PROPERTY = "code";
+
+    /** Problem detail property: correlation ID. */
+    public static final String CORRELATION_ID_PROPERTY = "correlationId";
+
+    /** Problem detail of server errors in production mode: the message is only logged. */
+    public static final String SERVER_ERROR_DETAIL =
+            "Internal error, report the correlation ID to support";
+
+    /** Client's correlation ID is accepted only if it looks like an ID. */
+    private static final Pattern CORRELATION_ID_PATTERN = Pattern.compile("[\\w.-]{1,64}");
+
+    /** Errors counter for stack trace sampling, shared by all advices. */
+    private static final AtomicLong ERRORS_COUNTER = new AtomicLong();
+
+    private boolean production = false;
+
+    private int stackTraceSampleRate = 1;
+
     /** Default constructor. */
     protected AbstractBaseControllerAdvice() {}
 
+    /**
+     * @param production True for compact problem details without stack trace.
+     */
+    @Value("${tk.error-response.production:false}")
+    public void setProduction(boolean production) {
+        this.production = production;
+    }
+
+    /**
+     * @param stackTraceSampleRate Stack trace is logged for one of this count of errors,
+     *        0 - never.
+     */
+    @Value("${tk.error-response.stack-trace-sample-rate:1}")
+    public void setStackTraceSampleRate(int stackTraceSampleRate) {
+        this.stackTraceSampleRate = stackTraceSampleRate;
+    }
+
+    /**
+     * @return True for compact problem details without stack trace.
+     */
+    public boolean isProduction() {
+        return production;
+    }
+
     /**
      * Default message.
      * 
@@ -25,4 +92,75 @@ public abstract class AbstractBaseControllerAdvice {
 
         return String.format("%s %s", MESSAGE_PREFIX, obj.getClass().getSimpleName());
     }
+
+    /**
+     * Stack trace as error details.
+     * 
+     * @param e Exception.
+     * @return Details supplier.
+     */
+    protected static Supplier<String> stackTrace(@NotNull Throwable e) {
+
+        return () -> Arrays.toString(e.getStackTrace());
+    }
+
+    /**
+     * Correlation ID from request header, new one if absent or malformed.
+     */
+    private static String getCorrelationId() {
+
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            final String id = servletAttributes.getRequest().getHeader(CORRELATION_ID_HEADER);
+            if (id != null && CORRELATION_ID_PATTERN.matcher(id).matches()) {
+                return id;
+            }
+        }
+        return UUID.randomUUID().toString();
+    }
+
+    private boolean isStackTraceSampled() {
+
+        return stackTraceSampleRate > 0
+                && ERRORS_COUNTER.getAndIncrement() % stackTraceSampleRate == 0;
+    }
+
+    /**
+     * Log the error and build the response.
+     * 
+     * @param log Logger of the advice.
+     * @param code Error code.
+     * @param status HTTP status.
+     * @param message Error message.
+     * @param details Error details, evaluated in default mode only.
+     * @param e Exception.
+     * @return Response entity with {@link CommonErrorResponseDto} or {@link ProblemDetail}.
+     */
+    protected ResponseEntity<Object> toErrorResponse(@NotNull Logger log, int code,
+            @NotNull HttpStatus status, String message, @NotNull Supplier<String> details,
+            @NotNull Throwable e) {
+
+        final String correlationId = getCorrelationId();
+
+        LogEx.error(log, LogEx.EXCEPTION_THROWN, code, correlationId, message);
+        if (log.isErrorEnabled() && isStackTraceSampled()) {
+            log.error("Stack trace: {}", correlationId, e);
+        }
+
+        if (!production) {
+            return ResponseEntity.status(status)
+                    .header(CORRELATION_ID_HEADER, correlationId)
+                    .body(new CommonErrorResponseDto(code, message, details.get()));
+        }
+
+        // Server errors may carry internals (SQL, paths) in the message: it is only logged.
+        final ProblemDetail problem = ProblemDetail.forStatusAndDetail(status,
+                status.is5xxServerError() ? SERVER_ERROR_DETAIL : message);
+        problem.setProperty(CODE_PROPERTY, code);
+        problem.setProperty(CORRELATION_ID_PROPERTY, correlationId);
+
+        return ResponseEntity.status(status)
+                .header(CORRELATION_ID_HEADER, correlationId)
+                .body(problem);
+    }
 }
@@ -8,9 +8,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import ru.spb.tksoft.common.controller.dto.CommonErrorResponseDto;
-import ru.spb.tksoft.utils.log.LogEx;
-import java.util.Arrays;
 
 /**
  * Processing of very common exception. Order is important! @see @Order()
@@ -39,18 +36,14 @@ public class CommonControllerAdvice extends AbstractBaseControllerAdvice {
      * Default/fallback handler.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(Exception.class)
     @Order()
-    public ResponseEntity<CommonErrorResponseDto> handleException(Exception e) {
+    public ResponseEntity<Object> handleException(Exception e) {
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, E_CODE, e);
-
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(E_CODE, e.getMessage(),
-                        Arrays.toString(e.getStackTrace())),
-                HttpStatus.INTERNAL_SERVER_ERROR);
+        return toErrorResponse(log, E_CODE, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(),
+                stackTrace(e), e);
     }
 
     /** Error code: RuntimeException. */
@@ -60,18 +53,14 @@ public class CommonControllerAdvice extends AbstractBaseControllerAdvice {
      * Handling RuntimeException.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(RuntimeException.class)
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 1)
-    public ResponseEntity<CommonErrorResponseDto> handleRuntimeException(RuntimeException e) {
-
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, RTE_CODE, e);
+    public ResponseEntity<Object> handleRuntimeException(RuntimeException e) {
 
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(RTE_CODE, e.getMessage(),
-                        Arrays.toString(e.getStackTrace())),
-                HttpStatus.INTERNAL_SERVER_ERROR);
+        return toErrorResponse(log, RTE_CODE, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(),
+                stackTrace(e), e);
     }
 
     /** Error code: NullPointerException. */
@@ -81,18 +70,14 @@ public class CommonControllerAdvice extends AbstractBaseControllerAdvice {
      * Handling NullPointerException.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(NullPointerException.class)
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 2)
-    public ResponseEntity<CommonErrorResponseDto> handleNpe(NullPointerException e) {
+    public ResponseEntity<Object> handleNpe(NullPointerException e) {
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, NPE_CODE, e);
-
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(NPE_CODE, e.getMessage(),
-                        Arrays.toString(e.getStackTrace())),
-                HttpStatus.INTERNAL_SERVER_ERROR);
+        return toErrorResponse(log, NPE_CODE, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage(),
+                stackTrace(e), e);
     }
 
     /** Error code: IllegalArgumentException. */
@@ -102,17 +87,13 @@ public class CommonControllerAdvice extends AbstractBaseControllerAdvice {
      * Handling IllegalArgumentException.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(IllegalArgumentException.class)
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 3)
-    public ResponseEntity<CommonErrorResponseDto> handleIAE(IllegalArgumentException e) {
-
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, IAE_CODE, e);
+    public ResponseEntity<Object> handleIAE(IllegalArgumentException e) {
 
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(IAE_CODE, e.getMessage(),
-                        Arrays.toString(e.getStackTrace())),
-                HttpStatus.NOT_ACCEPTABLE);
+        return toErrorResponse(log, IAE_CODE, HttpStatus.NOT_ACCEPTABLE, e.getMessage(),
+                stackTrace(e), e);
     }
 }
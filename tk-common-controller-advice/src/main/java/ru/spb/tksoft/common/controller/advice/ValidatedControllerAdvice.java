@@ -13,9 +13,6 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import jakarta.validation.ConstraintViolationException;
-import ru.spb.tksoft.common.controller.dto.CommonErrorResponseDto;
-import ru.spb.tksoft.utils.log.LogEx;
-import java.util.Arrays;
 
 /**
  * Processing validation exceptions. Order is important! @see @Order()
@@ -44,20 +41,16 @@ public class ValidatedControllerAdvice extends AbstractBaseControllerAdvice {
      * Handling HandlerMethodValidationException.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(HandlerMethodValidationException.class)
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 1)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ResponseEntity<CommonErrorResponseDto> handleHandlerMethodValidation(
+    public ResponseEntity<Object> handleHandlerMethodValidation(
             HandlerMethodValidationException e) {
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, HMVA_CODE,
-                e.getMessage());
-
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(HMVA_CODE, e.getMessage()),
-                HttpStatus.BAD_REQUEST);
+        return toErrorResponse(log, HMVA_CODE, HttpStatus.BAD_REQUEST,
+                e.getMessage(), () -> "", e);
     }
 
     /** Error code: MethodArgumentNotValidException. */
@@ -67,20 +60,16 @@ public class ValidatedControllerAdvice extends AbstractBaseControllerAdvice {
      * Handling MethodArgumentNotValidException.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 2)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ResponseEntity<CommonErrorResponseDto> handleMethodArgumentNotValid(
+    public ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException e) {
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, MANV_CODE,
-                e.getMessage());
-
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(MANV_CODE, e.getMessage()),
-                HttpStatus.BAD_REQUEST);
+        return toErrorResponse(log, MANV_CODE, HttpStatus.BAD_REQUEST,
+                e.getMessage(), () -> "", e);
     }
 
     /** Error code: ConstraintViolationException. */
@@ -90,12 +79,12 @@ public class ValidatedControllerAdvice extends AbstractBaseControllerAdvice {
      * Handling ConstraintViolationException.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(ConstraintViolationException.class)
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 3)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ResponseEntity<CommonErrorResponseDto> handleConstraintViolation(
+    public ResponseEntity<Object> handleConstraintViolation(
             ConstraintViolationException e) {
 
         final String message = "Validation error: " +
@@ -104,12 +93,8 @@ public class ValidatedControllerAdvice extends AbstractBaseControllerAdvice {
                                 + v.getMessage())
                         .toList();
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, CVE_CODE,
-                e.getMessage(), message);
-
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(CVE_CODE, e.getMessage(), message),
-                HttpStatus.BAD_REQUEST);
+        return toErrorResponse(log, CVE_CODE, HttpStatus.BAD_REQUEST, e.getMessage(),
+                () -> message, e);
     }
 
     /** Error code: MissingServletRequestParameterException. */
@@ -119,20 +104,16 @@ public class ValidatedControllerAdvice extends AbstractBaseControllerAdvice {
      * Handling MissingServletRequestParameterException.
      * 
      * @param e Exception.
-     * @return Error DTO.
+     * @return Error DTO or problem detail.
      */
     @ExceptionHandler(MissingServletRequestParameterException.class)
     @Order(Ordered.LOWEST_PRECEDENCE - ORDER_BASE - 4)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ResponseEntity<CommonErrorResponseDto> handleMissingParams(
+    public ResponseEntity<Object> handleMissingParams(
             MissingServletRequestParameterException e) {
 
-        LogEx.error(log, LogEx.getThisMethodName(), LogEx.EXCEPTION_THROWN, MSP_CODE,
-                e.getMessage());
-
-        return new ResponseEntity<>(
-                new CommonErrorResponseDto(MSP_CODE, e.getMessage(),
-                        Arrays.toString(e.getStackTrace())),
-                HttpStatus.BAD_REQUEST);
+        // Missing parameter is the client's mistake: no stack trace even in default mode.
+        return toErrorResponse(log, MSP_CODE, HttpStatus.BAD_REQUEST,
+                e.getMessage(), () -> "", e);
     }
 }
@@ -0,0 +1,65 @@
+package ru.spb.tksoft.common.controller.advice;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import ru.spb.tksoft.common.controller.dto.CommonErrorResponseDto;
+
+/**
+ * Error responses of CommonControllerAdvice in both modes.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class CommonControllerAdviceTest {
+
+    private static final String INTERNAL_MESSAGE = "relation \"ad\" does not exist";
+
+    private static CommonControllerAdvice createAdvice(boolean production) {
+
+        CommonControllerAdvice advice = new CommonControllerAdvice();
+        advice.setProduction(production);
+        advice.setStackTraceSampleRate(0);
+        return advice;
+    }
+
+    @Test
+    void serverError_shouldHideMessage_whenProduction() {
+
+        ResponseEntity<Object> response = createAdvice(true)
+                .handleRuntimeException(new IllegalStateException(INTERNAL_MESSAGE));
+
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        ProblemDetail problem = Assertions.assertInstanceOf(ProblemDetail.class,
+                response.getBody());
+        Assertions.assertEquals(AbstractBaseControllerAdvice.SERVER_ERROR_DETAIL,
+                problem.getDetail());
+        Assertions.assertEquals(CommonControllerAdvice.RTE_CODE,
+                problem.getProperties().get(AbstractBaseControllerAdvice.CODE_PROPERTY));
+    }
+
+    @Test
+    void clientError_shouldKeepMessage_whenProduction() {
+
+        ResponseEntity<Object> response = createAdvice(true)
+                .handleIAE(new IllegalArgumentException("size"));
+
+        Assertions.assertEquals(HttpStatus.NOT_ACCEPTABLE, response.getStatusCode());
+        ProblemDetail problem = Assertions.assertInstanceOf(ProblemDetail.class,
+                response.getBody());
+        Assertions.assertEquals("size", problem.getDetail());
+    }
+
+    @Test
+    void serverError_shouldKeepMessage_whenNotProduction() {
+
+        ResponseEntity<Object> response = createAdvice(false)
+                .handleRuntimeException(new IllegalStateException(INTERNAL_MESSAGE));
+
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        CommonErrorResponseDto error = Assertions.assertInstanceOf(
+                CommonErrorResponseDto.class, response.getBody());
+        Assertions.assertEquals(INTERNAL_MESSAGE, error.message());
+    }
+}
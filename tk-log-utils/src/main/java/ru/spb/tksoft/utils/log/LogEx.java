@@ -2,7 +2,7 @@ package ru.spb.tksoft.utils.log;
 
 import org.slf4j.Logger;
 import org.slf4j.event.Level;
-import java.util.Arrays;
+import java.lang.StackWalker.StackFrame;
 
 /**
  * Extended/wrapped logging.
@@ -23,39 +23,176 @@ public final class LogEx {
     /** Common phrase 'exception thrown'. */
     public static final String EXCEPTION_THROWN = "exception thrown";
 
+    /**
+     * Message part replaced with the name of the calling method, e.g.
+     * {@code LogEx.trace(log, LogEx.THIS_METHOD, LogEx.STARTING)}.
+     * 
+     * Resolved only if the message is actually logged: disabled levels cost nothing.
+     */
+    public static final Object THIS_METHOD = new Object() {
+        @Override
+        public String toString() {
+            return "<this method>";
+        }
+    };
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final String SEPARATOR = ": ";
+
+    /** Initial capacity of builders. */
+    private static final int BUILDER_CAPACITY_INITIAL = 256;
+
+    /** Builders grown larger than this are shrunk back after use. */
+    static final int BUILDER_CAPACITY_MAX = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUILDER =
+            ThreadLocal.withInitial(() -> new StringBuilder(BUILDER_CAPACITY_INITIAL));
+
     private LogEx() {}
 
     /**
      * Get the current method name.
      * 
+     * Prefer {@link #THIS_METHOD} in log calls: this method walks the stack even if nothing
+     * is going to be logged.
+     * 
      * @return The name of the method that called this method.
      */
     public static String getThisMethodName() {
 
-        final StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
-        final int currentFrameIndex = 2; // 0 - getStackTrace(), 1 - getCurrentMethodName()
+        // Only two frames are walked: this method and its caller.
+        return STACK_WALKER.walk(frames -> frames.skip(1).findFirst())
+                .map(StackFrame::getMethodName)
+                .orElseThrow(() -> new IllegalStateException("Call stack too short"));
+    }
+
+    /**
+     * Name of the first method outside LogEx.
+     */
+    private static String getCallerMethodName() {
+
+        final String thisClassName = LogEx.class.getName();
+        return STACK_WALKER.walk(frames -> frames
+                .dropWhile(frame -> frame.getClassName().equals(thisClassName))
+                .findFirst())
+                .map(StackFrame::getMethodName)
+                .orElseThrow(() -> new IllegalStateException("Call stack too short"));
+    }
+
+    /**
+     * Message builder of current thread, reused by all log calls.
+     * 
+     * @return Empty builder.
+     */
+    static StringBuilder builder() {
+
+        final StringBuilder sb = BUILDER.get();
+
+        // Non-empty builder is being filled by an outer call: part's toString() logs itself.
+        return sb.length() == 0 ? sb : new StringBuilder();
+    }
+
+    /**
+     * Leave the builder empty and shrink it if it has grown too large. Called in finally: a
+     * part's toString() may throw, and a builder left non-empty is never reused.
+     */
+    private static void release(final StringBuilder sb) {
 
-        if (stackTraceElements.length > currentFrameIndex) {
-            return stackTraceElements[currentFrameIndex].getMethodName();
-        } else {
-            throw new IllegalStateException("Call stack too short");
+        sb.setLength(0);
+        if (sb.capacity() > BUILDER_CAPACITY_MAX) {
+            sb.trimToSize();
+            sb.ensureCapacity(BUILDER_CAPACITY_INITIAL);
         }
     }
 
     /**
-     * Log the current method.
+     * Append message part, {@link #THIS_METHOD} is replaced with the calling method name.
+     */
+    private static StringBuilder append(final StringBuilder sb, final Object part) {
+
+        return part == THIS_METHOD
+                ? sb.append(getCallerMethodName())
+                : sb.append(part);
+    }
+
+    /**
+     * Join message parts.
      * 
-     * @param logger The logger.
-     * @param level The logging level.
      * @param parts The message parts.
+     * @return Message.
      */
-    public static void log(Logger logger, Level level, Object[] parts) {
+    static String toMessage(Object[] parts) {
+
+        final StringBuilder sb = builder();
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    sb.append(SEPARATOR);
+                }
+                append(sb, parts[i]);
+            }
+            return sb.toString();
+        } finally {
+            release(sb);
+        }
+    }
 
-        final String[] strings = Arrays.stream(parts)
-                .map(String::valueOf)
-                .toArray(String[]::new);
+    /**
+     * Single part message.
+     */
+    static String toMessage(Object part1) {
+
+        final StringBuilder sb = builder();
+        try {
+            return append(sb, part1).toString();
+        } finally {
+            release(sb);
+        }
+    }
+
+    /**
+     * Two parts message.
+     */
+    static String toMessage(Object part1, Object part2) {
+
+        final StringBuilder sb = builder();
+        try {
+            append(sb, part1).append(SEPARATOR);
+            return append(sb, part2).toString();
+        } finally {
+            release(sb);
+        }
+    }
+
+    /**
+     * Three parts message.
+     */
+    static String toMessage(Object part1, Object part2, Object part3) {
+
+        final StringBuilder sb = builder();
+        try {
+            append(sb, part1).append(SEPARATOR);
+            append(sb, part2).append(SEPARATOR);
+            return append(sb, part3).toString();
+        } finally {
+            release(sb);
+        }
+    }
+
+    private static boolean isEnabled(Logger logger, Level level) {
+
+        return switch (level) {
+            case TRACE -> logger.isTraceEnabled();
+            case DEBUG -> logger.isDebugEnabled();
+            case INFO -> logger.isInfoEnabled();
+            case WARN -> logger.isWarnEnabled();
+            case ERROR -> logger.isErrorEnabled();
+        };
+    }
+
+    private static void write(Logger logger, Level level, String message) {
 
-        final String message = String.join(": ", strings);
         switch (level) {
             case TRACE -> logger.trace(message);
             case DEBUG -> logger.debug(message);
@@ -66,7 +203,69 @@ public final class LogEx {
     }
 
     /**
-     * Log the current method with 'trace' severity
+     * Log the current method.
+     * 
+     * Level is checked first: disabled calls format nothing.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param parts The message parts.
+     */
+    public static void log(Logger logger, Level level, Object[] parts) {
+
+        if (isEnabled(logger, level)) {
+            write(logger, level, toMessage(parts));
+        }
+    }
+
+    /**
+     * Log the current method, single part message.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param part1 The message part.
+     */
+    public static void log(Logger logger, Level level, Object part1) {
+
+        if (isEnabled(logger, level)) {
+            write(logger, level, toMessage(part1));
+        }
+    }
+
+    /**
+     * Log the current method, two parts message.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     */
+    public static void log(Logger logger, Level level, Object part1, Object part2) {
+
+        if (isEnabled(logger, level)) {
+            write(logger, level, toMessage(part1, part2));
+        }
+    }
+
+    /**
+     * Log the current method, three parts message.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     * @param part3 The message part.
+     */
+    public static void log(Logger logger, Level level, Object part1, Object part2,
+            Object part3) {
+
+        if (isEnabled(logger, level)) {
+            write(logger, level, toMessage(part1, part2, part3));
+        }
+    }
+
+    /**
+     * Log the current method with 'trace' severity.
      * 
      * @param logger The logger.
      * @param parts The message parts.
@@ -76,6 +275,42 @@ public final class LogEx {
         log(logger, Level.TRACE, parts);
     }
 
+    /**
+     * Log the current method with 'trace' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     */
+    public static void trace(Logger logger, Object part1) {
+
+        log(logger, Level.TRACE, part1);
+    }
+
+    /**
+     * Log the current method with 'trace' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     */
+    public static void trace(Logger logger, Object part1, Object part2) {
+
+        log(logger, Level.TRACE, part1, part2);
+    }
+
+    /**
+     * Log the current method with 'trace' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     * @param part3 The message part.
+     */
+    public static void trace(Logger logger, Object part1, Object part2, Object part3) {
+
+        log(logger, Level.TRACE, part1, part2, part3);
+    }
+
     /**
      * Log the current method with 'debug' severity.
      * 
@@ -87,6 +322,42 @@ public final class LogEx {
         log(logger, Level.DEBUG, parts);
     }
 
+    /**
+     * Log the current method with 'debug' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     */
+    public static void debug(Logger logger, Object part1) {
+
+        log(logger, Level.DEBUG, part1);
+    }
+
+    /**
+     * Log the current method with 'debug' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     */
+    public static void debug(Logger logger, Object part1, Object part2) {
+
+        log(logger, Level.DEBUG, part1, part2);
+    }
+
+    /**
+     * Log the current method with 'debug' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     * @param part3 The message part.
+     */
+    public static void debug(Logger logger, Object part1, Object part2, Object part3) {
+
+        log(logger, Level.DEBUG, part1, part2, part3);
+    }
+
     /**
      * Log the current method with 'info' severity.
      * 
@@ -98,6 +369,42 @@ public final class LogEx {
         log(logger, Level.INFO, parts);
     }
 
+    /**
+     * Log the current method with 'info' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     */
+    public static void info(Logger logger, Object part1) {
+
+        log(logger, Level.INFO, part1);
+    }
+
+    /**
+     * Log the current method with 'info' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     */
+    public static void info(Logger logger, Object part1, Object part2) {
+
+        log(logger, Level.INFO, part1, part2);
+    }
+
+    /**
+     * Log the current method with 'info' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     * @param part3 The message part.
+     */
+    public static void info(Logger logger, Object part1, Object part2, Object part3) {
+
+        log(logger, Level.INFO, part1, part2, part3);
+    }
+
     /**
      * Log the current method with 'warn' severity.
      * 
@@ -109,6 +416,42 @@ public final class LogEx {
         log(logger, Level.WARN, parts);
     }
 
+    /**
+     * Log the current method with 'warn' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     */
+    public static void warn(Logger logger, Object part1) {
+
+        log(logger, Level.WARN, part1);
+    }
+
+    /**
+     * Log the current method with 'warn' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     */
+    public static void warn(Logger logger, Object part1, Object part2) {
+
+        log(logger, Level.WARN, part1, part2);
+    }
+
+    /**
+     * Log the current method with 'warn' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     * @param part3 The message part.
+     */
+    public static void warn(Logger logger, Object part1, Object part2, Object part3) {
+
+        log(logger, Level.WARN, part1, part2, part3);
+    }
+
     /**
      * Log the current method with 'error' severity.
      * 
@@ -119,4 +462,40 @@ public final class LogEx {
 
         log(logger, Level.ERROR, parts);
     }
+
+    /**
+     * Log the current method with 'error' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     */
+    public static void error(Logger logger, Object part1) {
+
+        log(logger, Level.ERROR, part1);
+    }
+
+    /**
+     * Log the current method with 'error' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     */
+    public static void error(Logger logger, Object part1, Object part2) {
+
+        log(logger, Level.ERROR, part1, part2);
+    }
+
+    /**
+     * Log the current method with 'error' severity, no varargs array.
+     * 
+     * @param logger The logger.
+     * @param part1 The message part.
+     * @param part2 The message part.
+     * @param part3 The message part.
+     */
+    public static void error(Logger logger, Object part1, Object part2, Object part3) {
+
+        log(logger, Level.ERROR, part1, part2, part3);
+    }
 }
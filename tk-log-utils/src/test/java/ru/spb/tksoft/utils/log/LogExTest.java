@@ -0,0 +1,90 @@
+package ru.spb.tksoft.utils.log;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * LogEx tests.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class LogExTest {
+
+    @Test
+    void getThisMethodName_shouldReturnCallingMethod() {
+
+        Assertions.assertEquals("getThisMethodName_shouldReturnCallingMethod",
+                LogEx.getThisMethodName());
+    }
+
+    @Test
+    void toMessage_shouldReplaceThisMethodWithCallingMethod() {
+
+        Assertions.assertEquals("toMessage_shouldReplaceThisMethodWithCallingMethod: starting",
+                LogEx.toMessage(new Object[] {LogEx.THIS_METHOD, LogEx.STARTING}));
+    }
+
+    @Test
+    void toMessage_shouldJoinPartsAsStrings() {
+
+        Assertions.assertEquals("a: 1: null",
+                LogEx.toMessage(new Object[] {"a", 1, null}));
+    }
+
+    @Test
+    void toMessage_shouldFormatFixedArityAsVarargs() {
+
+        Assertions.assertEquals(LogEx.toMessage(new Object[] {"a"}), LogEx.toMessage("a"));
+        Assertions.assertEquals(LogEx.toMessage(new Object[] {"a", 2}),
+                LogEx.toMessage("a", 2));
+        Assertions.assertEquals(LogEx.toMessage(new Object[] {"a", 2, null}),
+                LogEx.toMessage("a", 2, null));
+    }
+
+    @Test
+    void toMessage_shouldKeepOuterMessage_whenPartLogsItself() {
+
+        final Object nested = new Object() {
+            @Override
+            public String toString() {
+                return LogEx.toMessage("inner", 1);
+            }
+        };
+
+        Assertions.assertEquals("outer: inner: 1: end",
+                LogEx.toMessage("outer", nested, "end"));
+    }
+
+    @Test
+    void toMessage_shouldReuseBuilder_whenPartThrows() {
+
+        final Object failing = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("broken part");
+            }
+        };
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> LogEx.toMessage("before", failing));
+
+        // Thread's builder is left empty, so it is handed out again.
+        final StringBuilder sb = LogEx.builder();
+        Assertions.assertEquals(0, sb.length());
+        Assertions.assertSame(sb, LogEx.builder());
+        Assertions.assertEquals("a: b", LogEx.toMessage("a", "b"));
+    }
+
+    @Test
+    void toMessage_shouldShrinkBuilder_whenMessageIsLarge() {
+
+        final String large = "x".repeat(LogEx.BUILDER_CAPACITY_MAX * 2);
+
+        Assertions.assertEquals(large, LogEx.toMessage(large));
+
+        final StringBuilder sb = LogEx.builder();
+        Assertions.assertEquals(0, sb.length());
+        Assertions.assertTrue(sb.capacity() <= LogEx.BUILDER_CAPACITY_MAX,
+                String.valueOf(sb.capacity()));
+    }
+}
@@ -1,10 +1,16 @@
 package ru.spb.tksoft.utils.string;
 
-import java.text.SimpleDateFormat;
-import java.util.Arrays;
-import java.util.Date;
+import java.text.ParsePosition;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Extended/wrapped string-related routines.
@@ -13,13 +19,19 @@ import java.util.stream.Collectors;
  */
 public final class StringEx {
 
+    /** Max count of cached date/time formatters: patterns are expected to be constants. */
+    public static final int FORMATTERS_CACHE_SIZE_MAX = 256;
+
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
     private StringEx() {}
 
     /**
      * Replace "Some {text} data" with substring. Example: str = "{host}:{port}/{app}" with
      * parameters "localhost", 8080 and "school" will be returned "localhost:8080/school".  
      * 
-     * The method name is intentionally shortened to "r".
+     * The method name is intentionally shortened to "r". Pattern is parsed once and cached,
+     * see {@link StringTemplate}.
      *
      * @param str Source string in a form like "http://{host}:{port}/{app}".
      * @param objects Substrings like "myhost", 7654, "mycoolapp".
@@ -27,12 +39,10 @@ public final class StringEx {
      */
     public static String r(String str, Object... objects) {
 
-        for (Object object : objects) {
-            if (str != null && !str.isEmpty()) {
-                str = str.replaceFirst("\\{[^}]*}", object.toString());
-            }
+        if (str == null || str.isEmpty()) {
+            return str;
         }
-        return str;
+        return StringTemplate.of(str).render(objects);
     }
 
     /** 'Space' constant. */
@@ -71,13 +81,135 @@ public final class StringEx {
         return sb.toString();
     }
 
+    /**
+     * Formatter for the pattern from cache, create and cache it if absent.
+     * 
+     * DateTimeFormatter is immutable and thread-safe, unlike SimpleDateFormat. Lenient
+     * resolving keeps SimpleDateFormat behaviour: "32.01.2025" becomes "01.02.2025".
+     */
+    private static DateTimeFormatter getFormatter(final String pattern) {
+
+        final DateTimeFormatter formatter = FORMATTERS.get(pattern);
+        if (formatter != null) {
+            return formatter;
+        }
+
+        // Dynamic patterns must not grow the cache without bound.
+        if (FORMATTERS.size() >= FORMATTERS_CACHE_SIZE_MAX) {
+            return createFormatter(pattern);
+        }
+        return FORMATTERS.computeIfAbsent(pattern, StringEx::createFormatter);
+    }
+
+    /**
+     * Create lenient formatter for the pattern.
+     * 
+     * Two-letter year "yy" is built as SimpleDateFormat treats it: two digits are resolved within
+     * 80 years before and 20 years after now, more digits are taken literally. So "1.2.2025" with
+     * "dd.MM.yy" gives "01.02.25", as "01.02.25" does.
+     */
+    private static DateTimeFormatter createFormatter(final String pattern) {
+
+        final var builder = new DateTimeFormatterBuilder();
+        boolean quoted = false;
+        int start = 0;
+        int i = 0;
+        while (i < pattern.length()) {
+            final char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                i++;
+                continue;
+            }
+
+            int end = i + 1;
+            while (end < pattern.length() && pattern.charAt(end) == c) {
+                end++;
+            }
+            if (!quoted && c == 'y' && end - i == 2) {
+                builder.appendPattern(pattern.substring(start, i));
+                builder.appendValueReduced(ChronoField.YEAR_OF_ERA, 2, 4,
+                        LocalDate.now().minusYears(80));
+                start = end;
+            }
+            i = end;
+        }
+        builder.appendPattern(pattern.substring(start));
+
+        return builder.toFormatter().withResolverStyle(ResolverStyle.LENIENT);
+    }
+
+    /**
+     * Pad single-character parts between delimiters with leading zero, single pass.
+     * 
+     * Trailing delimiters are dropped, as String.split does.
+     * 
+     * @return Padded string, null if delimiter is empty.
+     */
+    private static String padParts(final String input, final String delimiter) {
+
+        final int delimiterLength = delimiter.length();
+        if (delimiterLength == 0) {
+            return null;
+        }
+
+        final var sb = new StringBuilder(input.length() + 4);
+        int start = 0;
+        while (true) {
+            final int end = input.indexOf(delimiter, start);
+            final int partEnd = end < 0 ? input.length() : end;
+            if (partEnd - start == 1) {
+                sb.append('0');
+            }
+            sb.append(input, start, partEnd);
+            if (end < 0) {
+                break;
+            }
+            sb.append(delimiter);
+            start = end + delimiterLength;
+        }
+
+        int length = sb.length();
+        while (length >= delimiterLength
+                && sb.lastIndexOf(delimiter, length - delimiterLength) == length - delimiterLength) {
+            length -= delimiterLength;
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+
+    private static String normalizeDateTime(final String input, final String delimiter,
+            final DateTimeFormatter formatter) {
+
+        if (input == null || input.isEmpty()) {
+            return input;
+        }
+
+        try {
+            final String str = padParts(input, delimiter);
+            if (str == null) {
+                return "";
+            }
+
+            // Trailing text is ignored, as SimpleDateFormat.parse(String) does.
+            final TemporalAccessor parsed = formatter.parse(str, new ParsePosition(0));
+            return formatter.format(parsed);
+
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
     /**
      * Try nomalize date OR time string representation.
      * 
+     * Single-character parts are padded with zero: "1.2.2025" with "." and "dd.MM.yyyy" gives
+     * "01.02.2025". Formatters are cached per pattern.
+     * 
      * @param input Normalizing string.
      * @param delimiter Delimiter.
      * @param pattern Valid datetime pattern.
-     * @return Valid or not.
+     * @return Normalized string, empty string if input is not valid.
      */
     public static String normalizeDateTime(final String input,
             final String delimiter, final String pattern) {
@@ -86,19 +218,44 @@ public final class StringEx {
             return input;
         }
 
+        final DateTimeFormatter formatter;
         try {
-            final List<String> parts = Arrays.asList(input.split("\\" + delimiter));
-            final String str = parts.stream()
-                    .map(part -> part.length() == 1 ? "0" + part : part)
-                    .collect(Collectors.joining(delimiter));
-
-            final var sdf = new SimpleDateFormat(pattern);
-            final Date date = sdf.parse(str);
+            formatter = getFormatter(pattern);
+        } catch (Exception e) {
+            return "";
+        }
+        return normalizeDateTime(input, delimiter, formatter);
+    }
 
-            return sdf.format(date);
+    /**
+     * Normalize a column of date OR time values, see
+     * {@link #normalizeDateTime(String, String, String)}.
+     * 
+     * The pattern is resolved once for the whole column.
+     * 
+     * @param inputs Normalizing strings.
+     * @param delimiter Delimiter.
+     * @param pattern Valid datetime pattern.
+     * @return Normalized strings in the same order, all empty if pattern is not valid.
+     */
+    public static List<String> normalizeDateTimeColumn(final List<String> inputs,
+            final String delimiter, final String pattern) {
 
+        DateTimeFormatter formatter;
+        try {
+            formatter = getFormatter(pattern);
         } catch (Exception e) {
-            return "";
+            formatter = null;
+        }
+
+        final List<String> result = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            if (formatter == null && input != null && !input.isEmpty()) {
+                result.add("");
+            } else {
+                result.add(normalizeDateTime(input, delimiter, formatter));
+            }
         }
+        return result;
     }
 }
@@ -0,0 +1,128 @@
+package ru.spb.tksoft.utils.string;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Template with "{name}" placeholders, parsed once into literal/placeholder segments.
+ * 
+ * Placeholders are filled by position, names are for readability only: "{host}:{port}/{app}"
+ * rendered with "localhost", 8080 and "school" gives "localhost:8080/school". Placeholders
+ * without a value are left as is, extra values are ignored. Immutable and thread-safe.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class StringTemplate {
+
+    /** Max count of cached templates: patterns are expected to be constants. */
+    public static final int CACHE_SIZE_MAX = 1024;
+
+    /** Expected length of a rendered value, used to pre-size the result. */
+    private static final int VALUE_LENGTH_EXPECTED = 16;
+
+    private static final Map<String, StringTemplate> CACHE = new ConcurrentHashMap<>();
+
+    /** Literal segments: one more than placeholders, possibly empty. */
+    private final String[] literals;
+
+    /** Placeholders as written in the pattern, including braces. */
+    private final String[] placeholders;
+
+    private final int literalsLength;
+
+    private StringTemplate(final String[] literals, final String[] placeholders) {
+
+        this.literals = literals;
+        this.placeholders = placeholders;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalsLength = length;
+    }
+
+    /**
+     * Parse the pattern.
+     * 
+     * @param pattern Pattern like "http://{host}:{port}/{app}".
+     * @return Template.
+     * @throws NullPointerException If pattern is null.
+     */
+    public static StringTemplate compile(final String pattern) {
+
+        final List<String> literalList = new ArrayList<>();
+        final List<String> placeholderList = new ArrayList<>();
+
+        int position = 0;
+        while (true) {
+            final int open = pattern.indexOf('{', position);
+            final int close = open < 0 ? -1 : pattern.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            literalList.add(pattern.substring(position, open));
+            placeholderList.add(pattern.substring(open, close + 1));
+            position = close + 1;
+        }
+        literalList.add(pattern.substring(position));
+
+        return new StringTemplate(literalList.toArray(String[]::new),
+                placeholderList.toArray(String[]::new));
+    }
+
+    /**
+     * Parsed template from cache, parse and cache it if absent.
+     * 
+     * @param pattern Pattern like "http://{host}:{port}/{app}".
+     * @return Template.
+     * @throws NullPointerException If pattern is null.
+     */
+    public static StringTemplate of(final String pattern) {
+
+        final StringTemplate template = CACHE.get(pattern);
+        if (template != null) {
+            return template;
+        }
+
+        // Dynamic patterns must not grow the cache without bound.
+        if (CACHE.size() >= CACHE_SIZE_MAX) {
+            return compile(pattern);
+        }
+        return CACHE.computeIfAbsent(pattern, StringTemplate::compile);
+    }
+
+    /**
+     * @return Count of placeholders.
+     */
+    public int getPlaceholderCount() {
+        return placeholders.length;
+    }
+
+    /**
+     * Fill placeholders with values.
+     * 
+     * @param values Values by position, rendered with String.valueOf.
+     * @return Resulting string.
+     */
+    public String render(final Object... values) {
+
+        if (placeholders.length == 0) {
+            return literals[0];
+        }
+
+        final var sb = new StringBuilder(
+                literalsLength + placeholders.length * VALUE_LENGTH_EXPECTED);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(literals[i]);
+            if (i < values.length) {
+                sb.append(values[i]);
+            } else {
+                sb.append(placeholders[i]);
+            }
+        }
+        return sb.append(literals[placeholders.length]).toString();
+    }
+}
@@ -0,0 +1,83 @@
+package ru.spb.tksoft.utils.string;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * StringEx.normalizeDateTime tests.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class StringExDateTimeTest {
+
+    @Test
+    void normalizeDateTime_shouldPadSingleCharacterParts() {
+
+        Assertions.assertEquals("01.02.2025",
+                StringEx.normalizeDateTime("1.2.2025", ".", "dd.MM.yyyy"));
+        Assertions.assertEquals("01:02:03",
+                StringEx.normalizeDateTime("1:2:3", ":", "HH:mm:ss"));
+    }
+
+    @Test
+    void normalizeDateTime_shouldResolveLeniently() {
+
+        Assertions.assertEquals("01.02.2025",
+                StringEx.normalizeDateTime("32.01.2025", ".", "dd.MM.yyyy"));
+        Assertions.assertEquals("01:00",
+                StringEx.normalizeDateTime("25:00", ":", "HH:mm"));
+    }
+
+    @Test
+    void normalizeDateTime_shouldAcceptTwoAndFourDigitYear_whenPatternHasTwoLetterYear() {
+
+        Assertions.assertEquals("01.02.25",
+                StringEx.normalizeDateTime("1.2.2025", ".", "dd.MM.yy"));
+        Assertions.assertEquals("01.02.25",
+                StringEx.normalizeDateTime("1.2.25", ".", "dd.MM.yy"));
+        Assertions.assertEquals("01.02.25y",
+                StringEx.normalizeDateTime("1.2.2025y", ".", "dd.MM.yy'y'"));
+    }
+
+    @Test
+    void normalizeDateTime_shouldIgnoreTrailingDelimitersAndText() {
+
+        Assertions.assertEquals("01.02.2025",
+                StringEx.normalizeDateTime("1.2.2025.", ".", "dd.MM.yyyy"));
+        Assertions.assertEquals("01.02.2025",
+                StringEx.normalizeDateTime("01.02.2025 12:00", ".", "dd.MM.yyyy"));
+    }
+
+    @Test
+    void normalizeDateTime_shouldReturnEmptyString_whenInputIsInvalid() {
+
+        Assertions.assertEquals("", StringEx.normalizeDateTime("abc", ".", "dd.MM.yyyy"));
+        Assertions.assertEquals("", StringEx.normalizeDateTime("1.2.2025", "", "dd.MM.yyyy"));
+        Assertions.assertEquals("", StringEx.normalizeDateTime("1.2.2025", ".", "{bad}"));
+    }
+
+    @Test
+    void normalizeDateTime_shouldReturnInput_whenNullOrEmpty() {
+
+        Assertions.assertNull(StringEx.normalizeDateTime(null, ".", "dd.MM.yyyy"));
+        Assertions.assertEquals("", StringEx.normalizeDateTime("", ".", "dd.MM.yyyy"));
+    }
+
+    @Test
+    void normalizeDateTimeColumn_shouldNormalizeEachValueInOrder() {
+
+        List<String> result = StringEx.normalizeDateTimeColumn(
+                Arrays.asList("1.2.2025", null, "x", "31.12.2024"), ".", "dd.MM.yyyy");
+
+        Assertions.assertEquals(Arrays.asList("01.02.2025", null, "", "31.12.2024"), result);
+    }
+
+    @Test
+    void normalizeDateTimeColumn_shouldReturnEmptyStrings_whenPatternIsInvalid() {
+
+        Assertions.assertEquals(Arrays.asList("", ""),
+                StringEx.normalizeDateTimeColumn(List.of("1.2.2025", "2.3.2025"), ".", "{bad}"));
+    }
+}
@@ -0,0 +1,63 @@
+package ru.spb.tksoft.utils.string;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * StringTemplate and StringEx.r tests.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class StringTemplateTest {
+
+    @Test
+    void render_shouldFillPlaceholdersByPosition() {
+
+        Assertions.assertEquals("http://localhost:8080/school",
+                StringTemplate.compile("http://{host}:{port}/{app}")
+                        .render("localhost", 8080, "school"));
+    }
+
+    @Test
+    void render_shouldKeepUnfilledPlaceholders_andIgnoreExtraValues() {
+
+        StringTemplate template = StringTemplate.compile("{a}/{b}");
+
+        Assertions.assertEquals(2, template.getPlaceholderCount());
+        Assertions.assertEquals("1/{b}", template.render(1));
+        Assertions.assertEquals("1/2", template.render(1, 2, 3));
+    }
+
+    @Test
+    void render_shouldInsertValuesLiterally() {
+
+        Assertions.assertEquals("$1\\/{x}",
+                StringTemplate.compile("{a}/{b}").render("$1\\", "{x}"));
+    }
+
+    @Test
+    void compile_shouldTreatUnclosedBraceAsLiteral() {
+
+        StringTemplate template = StringTemplate.compile("{}{a{b} tail {open");
+
+        Assertions.assertEquals(2, template.getPlaceholderCount());
+        Assertions.assertEquals("12 tail {open", template.render(1, 2));
+    }
+
+    @Test
+    void of_shouldReturnCachedTemplate() {
+
+        Assertions.assertSame(StringTemplate.of("{api}/ads/{id}"),
+                StringTemplate.of("{api}/ads/{id}"));
+    }
+
+    @Test
+    void r_shouldStayCompatible() {
+
+        Assertions.assertEquals("http://myhost:7654/mycoolapp",
+                StringEx.r("http://{host}:{port}/{app}", "myhost", 7654, "mycoolapp"));
+        Assertions.assertEquals("no placeholders", StringEx.r("no placeholders", 1));
+        Assertions.assertEquals("", StringEx.r("", 1));
+        Assertions.assertNull(StringEx.r(null, 1));
+    }
+}